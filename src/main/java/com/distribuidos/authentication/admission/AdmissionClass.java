@@ -0,0 +1,11 @@
+package com.distribuidos.authentication.admission;
+
+/**
+ * Traffic classes, declared from highest to lowest priority.
+ */
+public enum AdmissionClass {
+
+    LOGIN,
+    REGISTER,
+    AUTHENTICATED
+}
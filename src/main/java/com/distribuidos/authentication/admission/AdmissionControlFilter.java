@@ -0,0 +1,52 @@
+package com.distribuidos.authentication.admission;
+
+import com.distribuidos.authentication.exceptions.AdmissionRejectedException;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@AllArgsConstructor
+public class AdmissionControlFilter implements WebFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String REGISTER_PATH = "/auth/register";
+    private static final String ACTUATOR_PATH_PREFIX = "/actuator/";
+
+    private final AdmissionController admissionController;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+
+        // Probes and scrapes must keep answering while the service sheds load
+        if (path.startsWith(ACTUATOR_PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        AdmissionClass admissionClass = classify(path);
+        return admissionController.admit(admissionClass)
+                .then(Mono.defer(() -> chain.filter(exchange)
+                        .doFinally(signal -> admissionController.release(admissionClass))))
+                .onErrorResume(AdmissionRejectedException.class, e -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                            String.valueOf(admissionController.retryAfter().getSeconds()));
+                    return exchange.getResponse().setComplete();
+                });
+    }
+
+    private static AdmissionClass classify(String path) {
+        if (LOGIN_PATH.equals(path)) {
+            return AdmissionClass.LOGIN;
+        }
+        if (REGISTER_PATH.equals(path)) {
+            return AdmissionClass.REGISTER;
+        }
+        return AdmissionClass.AUTHENTICATED;
+    }
+
+}
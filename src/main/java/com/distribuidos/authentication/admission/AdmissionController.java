@@ -0,0 +1,220 @@
+package com.distribuidos.authentication.admission;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounds the number of exchanges in flight, globally and per {@link AdmissionClass}. Exchanges over the
+ * limits wait in one queue per class; freed permits go to the highest priority class first. Queued
+ * exchanges are shed CoDel-style: once the queue time has stayed above the target for a whole interval,
+ * exchanges that waited longer than the target are rejected instead of admitted, as their clients are
+ * likely gone by the time they would be answered.
+ */
+public class AdmissionController {
+
+    static final String REASON_QUEUE_FULL = "queue_full";
+    static final String REASON_QUEUE_TIMEOUT = "queue_timeout";
+    static final String REASON_QUEUE_DELAY = "queue_delay";
+
+    private final EnvironmentConfig.Admission config;
+
+    private final Object lock = new Object();
+    private final Map<AdmissionClass, ArrayDeque<Waiter>> queues = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Integer> inFlightByClass = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Timer> queueTimers = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Map<String, Counter>> rejections = new EnumMap<>(AdmissionClass.class);
+
+    private int inFlight;
+    private int queued;
+    private long aboveTargetSinceNanos;
+
+    public AdmissionController(EnvironmentConfig.Admission config, MeterRegistry meterRegistry) {
+        this.config = config;
+
+        for (AdmissionClass admissionClass : AdmissionClass.values()) {
+            queues.put(admissionClass, new ArrayDeque<>());
+            inFlightByClass.put(admissionClass, 0);
+            queueTimers.put(admissionClass, Timer.builder("auth.admission.queue.time")
+                    .description("Time an exchange waited before being admitted")
+                    .tag("class", admissionClass.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+
+            Map<String, Counter> reasons = new HashMap<>();
+            for (String reason : List.of(REASON_QUEUE_FULL, REASON_QUEUE_TIMEOUT, REASON_QUEUE_DELAY)) {
+                reasons.put(reason, Counter.builder("auth.admission.rejected")
+                        .description("Exchanges rejected by admission control")
+                        .tag("class", admissionClass.name().toLowerCase())
+                        .tag("reason", reason)
+                        .register(meterRegistry));
+            }
+            rejections.put(admissionClass, reasons);
+        }
+
+        Gauge.builder("auth.admission.in.flight", this, controller -> controller.inFlight)
+                .description("Exchanges currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("auth.admission.queued", this, controller -> controller.queued)
+                .description("Exchanges currently waiting for admission")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completes once the exchange is admitted, or fails with {@link AdmissionRejectedException}. Every
+     * successful admission must be paired with a {@link #release(AdmissionClass)}.
+     */
+    public Mono<Void> admit(AdmissionClass admissionClass) {
+        Mono<Void> admission = Mono.create(sink -> {
+            Waiter waiter = new Waiter(admissionClass, sink);
+            sink.onCancel(() -> cancel(waiter));
+            String rejection = null;
+
+            synchronized (lock) {
+                if (queues.get(admissionClass).isEmpty() && hasCapacity(admissionClass)) {
+                    acquire(admissionClass);
+                    waiter.granted = true;
+                } else if (queued >= config.getMaxQueueSize()) {
+                    rejection = REASON_QUEUE_FULL;
+                } else {
+                    queues.get(admissionClass).addLast(waiter);
+                    queued++;
+                }
+            }
+
+            if (waiter.granted) {
+                queueTimers.get(admissionClass).record(0, TimeUnit.NANOSECONDS);
+                sink.success();
+            } else if (rejection != null) {
+                sink.error(reject(admissionClass, rejection));
+            }
+        });
+
+        return admission
+                .timeout(Duration.ofMillis(config.getMaxQueueTimeInMs()))
+                .onErrorMap(TimeoutException.class, e -> reject(admissionClass, REASON_QUEUE_TIMEOUT));
+    }
+
+    public void release(AdmissionClass admissionClass) {
+        List<Waiter> decided;
+        synchronized (lock) {
+            inFlight--;
+            inFlightByClass.merge(admissionClass, -1, Integer::sum);
+            decided = dispatch();
+        }
+        signal(decided);
+    }
+
+    public Duration retryAfter() {
+        return Duration.ofSeconds(config.getRetryAfterInSeconds());
+    }
+
+    // Must be called while holding the lock
+    private List<Waiter> dispatch() {
+        List<Waiter> decided = new ArrayList<>();
+        long now = System.nanoTime();
+
+        for (AdmissionClass admissionClass : AdmissionClass.values()) {
+            ArrayDeque<Waiter> queue = queues.get(admissionClass);
+            while (!queue.isEmpty() && hasCapacity(admissionClass)) {
+                Waiter waiter = queue.pollFirst();
+                queued--;
+                decided.add(waiter);
+
+                if (!shouldShed(now - waiter.enqueuedAtNanos, now)) {
+                    acquire(admissionClass);
+                    waiter.granted = true;
+                }
+            }
+        }
+        return decided;
+    }
+
+    // Must be called while holding the lock
+    private boolean shouldShed(long sojournNanos, long now) {
+        if (sojournNanos < TimeUnit.MILLISECONDS.toNanos(config.getQueueTargetInMs())) {
+            aboveTargetSinceNanos = 0;
+            return false;
+        }
+        if (aboveTargetSinceNanos == 0) {
+            aboveTargetSinceNanos = now;
+            return false;
+        }
+        return now - aboveTargetSinceNanos >= TimeUnit.MILLISECONDS.toNanos(config.getQueueIntervalInMs());
+    }
+
+    private void signal(List<Waiter> decided) {
+        long now = System.nanoTime();
+        for (Waiter waiter : decided) {
+            if (waiter.granted) {
+                queueTimers.get(waiter.admissionClass).record(now - waiter.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+                waiter.sink.success();
+            } else {
+                waiter.sink.error(reject(waiter.admissionClass, REASON_QUEUE_DELAY));
+            }
+        }
+    }
+
+    // A cancelled sink never receives its success signal, so a permit granted to it has to be returned
+    private void cancel(Waiter waiter) {
+        boolean grantedPermit;
+        synchronized (lock) {
+            if (queues.get(waiter.admissionClass).remove(waiter)) {
+                queued--;
+            }
+            grantedPermit = waiter.granted;
+        }
+        if (grantedPermit) {
+            release(waiter.admissionClass);
+        }
+    }
+
+    // Must be called while holding the lock
+    private boolean hasCapacity(AdmissionClass admissionClass) {
+        return inFlight < config.getMaxConcurrency()
+                && inFlightByClass.get(admissionClass) < config.getConcurrencyLimits()
+                .getOrDefault(admissionClass, config.getMaxConcurrency());
+    }
+
+    // Must be called while holding the lock
+    private void acquire(AdmissionClass admissionClass) {
+        inFlight++;
+        inFlightByClass.merge(admissionClass, 1, Integer::sum);
+    }
+
+    private AdmissionRejectedException reject(AdmissionClass admissionClass, String reason) {
+        rejections.get(admissionClass).get(reason).increment();
+        return new AdmissionRejectedException(reason);
+    }
+
+    private static final class Waiter {
+
+        private final AdmissionClass admissionClass;
+        private final MonoSink<Void> sink;
+        private final long enqueuedAtNanos = System.nanoTime();
+
+        // Guarded by the controller lock
+        private boolean granted;
+
+        private Waiter(AdmissionClass admissionClass, MonoSink<Void> sink) {
+            this.admissionClass = admissionClass;
+            this.sink = sink;
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.distribuidos.authentication.config;
 
+import com.distribuidos.authentication.admission.AdmissionClass;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +11,11 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Validated
 @Configuration
@@ -27,6 +33,12 @@ public class EnvironmentConfig {
     @NotNull
     private Integer maxPayloadSizeInMb;
 
+    @NotNull
+    private Integer maxUserResponseSizeInKb;
+
+    @NotNull
+    private Integer maxErrorBodySizeInBytes;
+
     @NotNull
     private Boolean securityDisableSslCertValidation;
 
@@ -40,6 +52,55 @@ public class EnvironmentConfig {
     @NotBlank
     private String operatorId;
 
+    @Valid
+    @NotNull
+    private WarmUp warmUp;
+
+    @Valid
+    @NotNull
+    private UserLookupBatch userLookupBatch;
+
+    @Valid
+    @NotNull
+    private RequestDeadline requestDeadline;
+
+    @Valid
+    @NotNull
+    private Idempotency idempotency;
+
+    @Valid
+    @NotNull
+    private Admission admission;
+
+    @Valid
+    @NotNull
+    private RegisteredDocumentsFilter registeredDocumentsFilter;
+
+    @Valid
+    @NotNull
+    private Dns dns;
+
+    @Valid
+    @NotNull
+    private ConnectionPreWarm connectionPreWarm;
+
+    @Valid
+    @NotNull
+    private EventLoopLag eventLoopLag;
+
+    @Valid
+    @NotNull
+    private SharedState sharedState;
+
+    @Valid
+    @NotNull
+    private TuningFile tuningFile;
+
+    // Internal callers authenticated with HTTP Basic, keyed by client id
+    @Valid
+    @NotNull
+    private Map<String, ServiceClient> serviceClients = new HashMap<>();
+
     @Data
     @Validated
     public static class Domains {
@@ -49,6 +110,40 @@ public class EnvironmentConfig {
 
         @NotBlank
         private String centralizerDomain;
+
+        @Valid
+        @NotNull
+        private UpstreamClient usersClient;
+
+        @Valid
+        @NotNull
+        private UpstreamClient centralizerClient;
+    }
+
+    @Data
+    @Validated
+    public static class UpstreamClient {
+
+        @NotNull
+        private UpstreamProtocol protocol;
+
+        @NotNull
+        private Integer maxConnections;
+
+        // Only used by the multiplexed (H2, H2C) protocols
+        @NotNull
+        private Integer maxConcurrentStreams;
+
+        @NotNull
+        private Long responseTimeoutInMs;
+
+        // Wait for a free connection when the pool is exhausted
+        @NotNull
+        private Long pendingAcquireTimeoutInMs;
+
+        // Connections kept open by the pre-warmer, a multiplexed protocol needs a single one
+        @NotNull
+        private Integer minConnections;
     }
 
     @Data
@@ -58,4 +153,190 @@ public class EnvironmentConfig {
         @NotNull
         private Integer maxAttempts;
     }
+
+    @Data
+    @Validated
+    public static class WarmUp {
+
+        @NotNull
+        private Boolean enabled;
+
+        @NotNull
+        private Integer iterations;
+    }
+
+    @Data
+    @Validated
+    public static class UserLookupBatch {
+
+        @NotNull
+        private Boolean enabled;
+
+        @NotNull
+        private Long windowInMs;
+
+        @NotNull
+        private Integer maxSize;
+    }
+
+    @Data
+    @Validated
+    public static class RequestDeadline {
+
+        @NotBlank
+        private String header;
+
+        @NotNull
+        private Long defaultBudgetInMs;
+
+        @NotNull
+        private Map<String, Long> routeBudgetsInMs = new HashMap<>();
+
+        // A retry is not attempted with less than this left of the request budget
+        @NotNull
+        private Long minAttemptBudgetInMs;
+    }
+
+    @Data
+    @Validated
+    public static class Idempotency {
+
+        @NotNull
+        private Long ttlInSeconds;
+
+        @NotNull
+        private Integer maxEntries;
+
+        // Keys the request fingerprints, must be the same on every replica sharing the state store
+        @NotBlank
+        private String fingerprintSecret;
+    }
+
+    @Data
+    @Validated
+    public static class Admission {
+
+        @NotNull
+        private Boolean enabled;
+
+        @NotNull
+        private Integer maxConcurrency;
+
+        @NotNull
+        private Map<AdmissionClass, Integer> concurrencyLimits = new HashMap<>();
+
+        @NotNull
+        private Integer maxQueueSize;
+
+        @NotNull
+        private Long queueTargetInMs;
+
+        @NotNull
+        private Long queueIntervalInMs;
+
+        @NotNull
+        private Long maxQueueTimeInMs;
+
+        @NotNull
+        private Long retryAfterInSeconds;
+    }
+
+    @Data
+    @Validated
+    public static class RegisteredDocumentsFilter {
+
+        @NotNull
+        private Boolean enabled;
+
+        @NotNull
+        private Long expectedInsertions;
+
+        @NotNull
+        private Double falsePositiveRate;
+
+        @NotNull
+        private Long rebuildIntervalInSeconds;
+
+        @NotNull
+        private Long maxStalenessInSeconds;
+
+        @NotBlank
+        private String persistencePath;
+    }
+
+    @Data
+    @Validated
+    public static class Dns {
+
+        @NotNull
+        private Long cacheMinTtlInSeconds;
+
+        @NotNull
+        private Long cacheMaxTtlInSeconds;
+
+        @NotNull
+        private Long cacheNegativeTtlInSeconds;
+    }
+
+    @Data
+    @Validated
+    public static class ConnectionPreWarm {
+
+        @NotNull
+        private Boolean enabled;
+
+        @NotNull
+        private Long checkIntervalInSeconds;
+    }
+
+    @Data
+    @Validated
+    public static class EventLoopLag {
+
+        @NotNull
+        private Boolean enabled;
+
+        @NotNull
+        private Long intervalInMs;
+    }
+
+    @Data
+    @Validated
+    public static class SharedState {
+
+        @NotNull
+        private SharedStateBackend backend;
+
+        @NotBlank
+        private String keyPrefix;
+
+        // Local copies of shared entries, dropped on invalidation from any replica or after this TTL
+        @NotNull
+        private Long nearCacheTtlInSeconds;
+
+        @NotNull
+        private Integer nearCacheMaxEntries;
+    }
+
+    @Data
+    @Validated
+    public static class TuningFile {
+
+        // Blank disables the file, tuning is then only changed through the actuator endpoint
+        private String path;
+
+        @NotNull
+        private Long pollIntervalInSeconds;
+    }
+
+    @Data
+    @Validated
+    public static class ServiceClient {
+
+        // Blank disables the client
+        private String secret;
+
+        @NotNull
+        private List<String> roles = new ArrayList<>();
+    }
 }
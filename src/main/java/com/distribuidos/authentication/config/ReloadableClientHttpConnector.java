@@ -0,0 +1,57 @@
+package com.distribuidos.authentication.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Connector whose Reactor Netty client can be replaced while the WebClient built on it stays the same.
+ * A request keeps the client it started on; the replaced connection pool is disposed after a grace period,
+ * and even then connections still in use are only closed once released.
+ */
+class ReloadableClientHttpConnector implements ClientHttpConnector {
+
+    private final AtomicReference<Client> current;
+
+    ReloadableClientHttpConnector(HttpClient httpClient) {
+        this.current = new AtomicReference<>(new Client(httpClient));
+    }
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                            Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        return current.get().connector.connect(method, uri, requestCallback);
+    }
+
+    void reload(HttpClient httpClient, Duration grace) {
+        Client previous = current.getAndSet(new Client(httpClient));
+        ConnectionProvider provider = previous.httpClient.configuration().connectionProvider();
+        if (provider != null) {
+            Mono.delay(grace)
+                    .then(provider.disposeLater())
+                    .subscribe();
+        }
+    }
+
+    private static final class Client {
+
+        private final HttpClient httpClient;
+        private final ReactorClientHttpConnector connector;
+
+        private Client(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            this.connector = new ReactorClientHttpConnector(httpClient);
+        }
+    }
+
+}
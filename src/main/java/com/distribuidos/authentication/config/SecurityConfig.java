@@ -1,8 +1,13 @@
 package com.distribuidos.authentication.config;
 
+import com.distribuidos.authentication.admission.AdmissionControlFilter;
+import com.distribuidos.authentication.admission.AdmissionController;
 import com.distribuidos.authentication.security.JwtAuthenticationConverter;
 import com.distribuidos.authentication.security.JwtAuthenticationFilter;
 import com.distribuidos.authentication.security.JwtUtil;
+import com.distribuidos.authentication.security.ServiceClientAuthenticationConverter;
+import com.distribuidos.authentication.security.ServiceClientAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -24,14 +29,32 @@ import java.util.Arrays;
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
+    public static final String INTROSPECTION_ROLE = "INTROSPECTION";
+    public static final String OPERATOR_ROLE = "OPERATOR";
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
-                                                         JwtAuthenticationFilter jwtAuthenticationFilter) {
+                                                         JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                         EnvironmentConfig environmentConfig,
+                                                         AdmissionController admissionController) {
+        if (environmentConfig.getAdmission().getEnabled()) {
+            // Not exposed as a WebFilter bean, which WebFlux would also run outside of this chain
+            http.addFilterAt(new AdmissionControlFilter(admissionController), SecurityWebFiltersOrder.FIRST);
+        }
+        http.addFilterAt(new ServiceClientAuthenticationFilter(
+                        new ServiceClientAuthenticationConverter(environmentConfig.getServiceClients())),
+                SecurityWebFiltersOrder.HTTP_BASIC);
+
         http
                 .csrf().disable()
                 .cors().disable()  // Desactiva completamente CORS
                 .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/auth/me").authenticated()  // Perfil servido desde el token
+                        .pathMatchers("/auth/introspect").hasRole(INTROSPECTION_ROLE)  // Solo clientes internos
                         .pathMatchers("/auth/**").permitAll()  // Permitir las rutas de autenticación
+                        .pathMatchers("/actuator/health/**").permitAll()  // Probes de liveness y readiness
+                        .pathMatchers("/actuator/prometheus").permitAll()  // Scraping, solo en el puerto de management
+                        .pathMatchers("/actuator/**").hasRole(OPERATOR_ROLE)  // Tuning y demás, solo operadores
                         .anyExchange().authenticated())  // Requiere autenticación para cualquier otra ruta
                 .httpBasic().disable()
                 .formLogin().disable()
@@ -46,6 +69,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    @Bean
+    public AdmissionController admissionController(EnvironmentConfig environmentConfig, MeterRegistry meterRegistry) {
+        return new AdmissionController(environmentConfig.getAdmission(), meterRegistry);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
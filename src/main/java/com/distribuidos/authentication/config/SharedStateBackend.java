@@ -0,0 +1,14 @@
+package com.distribuidos.authentication.config;
+
+public enum SharedStateBackend {
+
+    /**
+     * State kept in this process only, every replica has its own copy.
+     */
+    MEMORY,
+
+    /**
+     * State kept in Redis and shared by every replica.
+     */
+    REDIS
+}
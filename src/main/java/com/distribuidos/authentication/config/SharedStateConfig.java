@@ -0,0 +1,25 @@
+package com.distribuidos.authentication.config;
+
+import com.distribuidos.authentication.services.sharedstate.InMemorySharedStateStore;
+import com.distribuidos.authentication.services.sharedstate.RedisSharedStateStore;
+import com.distribuidos.authentication.services.sharedstate.SharedStateStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+@Configuration
+public class SharedStateConfig {
+
+    // The Redis template is only resolved, and connected, when that backend is selected
+    @Bean
+    public SharedStateStore sharedStateStore(EnvironmentConfig environmentConfig,
+                                             ObjectProvider<ReactiveStringRedisTemplate> redisTemplate) {
+        EnvironmentConfig.SharedState sharedState = environmentConfig.getSharedState();
+        return switch (sharedState.getBackend()) {
+            case MEMORY -> new InMemorySharedStateStore();
+            case REDIS -> new RedisSharedStateStore(redisTemplate.getObject(), sharedState.getKeyPrefix());
+        };
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.distribuidos.authentication.config;
+
+import com.distribuidos.authentication.tuning.Tuning;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TuningConfig {
+
+    // Seeded from the bound environment, later changes come from the tuning file or the actuator endpoint
+    @Bean
+    public TuningRegistry tuningRegistry(EnvironmentConfig environmentConfig) {
+        return new TuningRegistry(Tuning.from(environmentConfig));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.distribuidos.authentication.config;
+
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the live metrics of every upstream connection pool, registered by Reactor Netty each time a pool
+ * for a new remote address is created. A provider holds one pool per resolved address.
+ * <p>
+ * Only the pools of the latest provider of an upstream are counted: a provider replaced on retuning keeps
+ * its connections until it is disposed after a grace period, and counting them would hide that the new
+ * provider still has to be warmed up.
+ */
+@Component
+public class UpstreamPools implements ConnectionProvider.MeterRegistrar {
+
+    private final Map<String, Map<String, ConnectionPoolMetrics>> pools = new ConcurrentHashMap<>();
+    private final Map<String, String> currentProviders = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    /**
+     * Name for a new connection provider of the upstream, from then on the only one whose pools are counted.
+     */
+    public String nextProviderName(String upstream) {
+        String providerName = upstream + "-" + generations.incrementAndGet();
+        currentProviders.put(upstream, providerName);
+        return providerName;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+                                ConnectionPoolMetrics metrics) {
+        pools.computeIfAbsent(poolName, name -> new ConcurrentHashMap<>()).put(id, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        Map<String, ConnectionPoolMetrics> pool = pools.get(poolName);
+        if (pool != null) {
+            pool.remove(id);
+            if (pool.isEmpty() && !poolName.equals(currentProviders.get(upstream(poolName)))) {
+                pools.remove(poolName, pool);
+            }
+        }
+    }
+
+    public int allocatedConnections(String upstream) {
+        return currentPools(upstream).values().stream()
+                .mapToInt(ConnectionPoolMetrics::allocatedSize)
+                .sum();
+    }
+
+    public int idleConnections(String upstream) {
+        return currentPools(upstream).values().stream()
+                .mapToInt(ConnectionPoolMetrics::idleSize)
+                .sum();
+    }
+
+    private Map<String, ConnectionPoolMetrics> currentPools(String upstream) {
+        String providerName = currentProviders.get(upstream);
+        return providerName == null ? Map.of() : pools.getOrDefault(providerName, Map.of());
+    }
+
+    private static String upstream(String providerName) {
+        return providerName.substring(0, providerName.lastIndexOf('-'));
+    }
+
+}
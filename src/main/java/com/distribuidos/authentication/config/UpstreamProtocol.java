@@ -0,0 +1,19 @@
+package com.distribuidos.authentication.config;
+
+public enum UpstreamProtocol {
+
+    /**
+     * HTTP/1.1, one in-flight request per pooled connection.
+     */
+    HTTP11,
+
+    /**
+     * HTTP/2 over TLS negotiated with ALPN, requests multiplexed as streams.
+     */
+    H2,
+
+    /**
+     * Cleartext HTTP/2 with prior knowledge, requests multiplexed as streams.
+     */
+    H2C
+}
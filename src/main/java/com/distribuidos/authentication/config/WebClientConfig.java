@@ -1,18 +1,27 @@
 package com.distribuidos.authentication.config;
 
-import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
+import com.distribuidos.authentication.tuning.Tuning;
+import com.distribuidos.authentication.tuning.TuningRegistry;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import lombok.Data;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider;
 
-import javax.net.ssl.SSLException;
+import java.time.Duration;
+import java.util.function.Function;
 
 import static org.springframework.http.HttpHeaders.ACCEPT;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
@@ -24,8 +33,28 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 @Lazy(value = false)
 public class WebClientConfig {
 
-    @Bean
-    public WebClient webClient(EnvironmentConfig config) throws SSLException {
+    public static final String USERS_WEB_CLIENT = "usersWebClient";
+    public static final String CENTRALIZER_WEB_CLIENT = "centralizerWebClient";
+    public static final String USERS_POOL = "users";
+    public static final String CENTRALIZER_POOL = "centralizer";
+
+    @Bean(USERS_WEB_CLIENT)
+    public WebClient usersWebClient(EnvironmentConfig config, UpstreamPools upstreamPools,
+                                    TuningRegistry tuningRegistry) {
+        return buildWebClient(USERS_POOL, config.getDomains().getUsersClient().getProtocol(), Tuning::getUsers,
+                config, upstreamPools, tuningRegistry);
+    }
+
+    @Bean(CENTRALIZER_WEB_CLIENT)
+    public WebClient centralizerWebClient(EnvironmentConfig config, UpstreamPools upstreamPools,
+                                          TuningRegistry tuningRegistry) {
+        return buildWebClient(CENTRALIZER_POOL, config.getDomains().getCentralizerClient().getProtocol(),
+                Tuning::getCentralizer, config, upstreamPools, tuningRegistry);
+    }
+
+    private WebClient buildWebClient(String name, UpstreamProtocol protocol, Function<Tuning, Tuning.Upstream> settings,
+                                     EnvironmentConfig config, UpstreamPools upstreamPools,
+                                     TuningRegistry tuningRegistry) {
         ExchangeStrategies exchangeStrategies = ExchangeStrategies
                 .builder()
                 .codecs(configurer -> configurer
@@ -33,27 +62,106 @@ public class WebClientConfig {
                         .maxInMemorySize(1024 * 1024 * config.getMaxPayloadSizeInMb()))
                 .build();
 
-        WebClient.Builder builder = WebClient.builder();
+        ReloadableClientHttpConnector connector = new ReloadableClientHttpConnector(
+                httpClient(name, protocol, settings.apply(tuningRegistry.current()), config, upstreamPools));
 
-        if (config.getSecurityDisableSslCertValidation()) {
-            disableSslCertValidation(builder);
-        }
+        // Only new pool settings need a new client, response timeouts and retries are read per request
+        tuningRegistry.changes()
+                .filter(change -> settings.apply(change.getCurrent())
+                        .hasDifferentPoolThan(settings.apply(change.getPrevious())))
+                .subscribe(change -> connector.reload(
+                        httpClient(name, protocol, settings.apply(change.getCurrent()), config, upstreamPools),
+                        // Long enough for requests already holding a connection of the old pool to complete
+                        Duration.ofMillis(2 * settings.apply(change.getPrevious()).getResponseTimeoutInMs())));
 
-        return builder
+        return WebClient.builder()
+                .clientConnector(connector)
+                .filter(responseTimeout(settings, tuningRegistry))
                 .defaultHeader(CONTENT_TYPE, APPLICATION_JSON_VALUE)
                 .defaultHeader(ACCEPT, ALL_VALUE)
                 .exchangeStrategies(exchangeStrategies)
                 .build();
     }
 
-    private void disableSslCertValidation(WebClient.Builder builder) throws SSLException {
-        SslContext sslContext = SslContextBuilder
-                .forClient()
-                .trustManager(InsecureTrustManagerFactory.INSTANCE)
-                .build();
+    HttpClient httpClient(String name, UpstreamProtocol protocol, Tuning.Upstream settings,
+                          EnvironmentConfig config, UpstreamPools upstreamPools) {
+        EnvironmentConfig.Dns dns = config.getDns();
+        HttpClient httpClient = HttpClient.create(connectionProvider(name, protocol, settings, upstreamPools))
+                .protocol(protocols(protocol))
+                // Non blocking resolver with its own cache instead of the JDK lookup on every new connection
+                .resolver(spec -> spec
+                        .cacheMinTimeToLive(Duration.ofSeconds(dns.getCacheMinTtlInSeconds()))
+                        .cacheMaxTimeToLive(Duration.ofSeconds(dns.getCacheMaxTtlInSeconds()))
+                        .cacheNegativeTimeToLive(Duration.ofSeconds(dns.getCacheNegativeTtlInSeconds())));
+
+        if (usesTls(protocol, config.getSecurityDisableSslCertValidation())) {
+            SslProvider.ProtocolSslContextSpec sslContextSpec =
+                    sslContextSpec(protocol, config.getSecurityDisableSslCertValidation());
+            httpClient = httpClient.secure(spec -> spec.sslContext(sslContextSpec));
+        }
+
+        return httpClient;
+    }
+
+    // H2C is HTTP/2 over cleartext by definition, Reactor Netty rejects it on a secured client
+    static boolean usesTls(UpstreamProtocol protocol, boolean disableSslCertValidation) {
+        return switch (protocol) {
+            case H2 -> true;
+            case H2C -> false;
+            case HTTP11 -> disableSslCertValidation;
+        };
+    }
+
+    // Set on every request from the current tuning, so a new timeout applies without rebuilding the client
+    private static ExchangeFilterFunction responseTimeout(Function<Tuning, Tuning.Upstream> settings,
+                                                          TuningRegistry tuningRegistry) {
+        return (request, next) -> {
+            Duration timeout = Duration.ofMillis(settings.apply(tuningRegistry.current()).getResponseTimeoutInMs());
+            return next.exchange(ClientRequest.from(request)
+                    .httpRequest(httpRequest -> httpRequest.<HttpClientRequest>getNativeRequest()
+                            .responseTimeout(timeout))
+                    .build());
+        };
+    }
+
+    private ConnectionProvider connectionProvider(String name, UpstreamProtocol protocol, Tuning.Upstream settings,
+                                                  UpstreamPools upstreamPools) {
+        // Every rebuilt provider gets its own name, so its pools are counted apart from the retired ones
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(upstreamPools.nextProviderName(name))
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(settings.getPendingAcquireTimeoutInMs()))
+                .metrics(true, () -> upstreamPools);
+
+        if (protocol != UpstreamProtocol.HTTP11) {
+            // Bounded number of connections, each one carrying up to maxConcurrentStreams requests
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(settings.getMaxConnections())
+                    .maxConcurrentStreams(settings.getMaxConcurrentStreams())
+                    .build());
+        }
+
+        return builder.build();
+    }
+
+    private HttpProtocol[] protocols(UpstreamProtocol protocol) {
+        return switch (protocol) {
+            case H2 -> new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11};
+            case H2C -> new HttpProtocol[]{HttpProtocol.H2C};
+            case HTTP11 -> new HttpProtocol[]{HttpProtocol.HTTP11};
+        };
+    }
+
+    private SslProvider.ProtocolSslContextSpec sslContextSpec(UpstreamProtocol protocol,
+                                                              boolean disableSslCertValidation) {
+        if (protocol == UpstreamProtocol.H2) {
+            Http2SslContextSpec spec = Http2SslContextSpec.forClient();
+            return disableSslCertValidation
+                    ? spec.configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE))
+                    : spec;
+        }
 
-        HttpClient httpClient = HttpClient.create().secure(t -> t.sslContext(sslContext));
-        builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+        return Http11SslContextSpec.forClient()
+                .configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE));
     }
 
-}
\ No newline at end of file
+}
@@ -1,30 +1,51 @@
 package com.distribuidos.authentication.controllers;
 
+import com.distribuidos.authentication.models.IntrospectionRequest;
 import com.distribuidos.authentication.models.LoginRequest;
 import com.distribuidos.authentication.models.ResponseBody;
+import com.distribuidos.authentication.models.TokenIntrospection;
+import com.distribuidos.authentication.security.TokenClaims;
 import com.distribuidos.authentication.services.facades.users.models.UserEntity;
 import com.distribuidos.authentication.services.AuthService;
+import com.distribuidos.authentication.services.TokenIntrospectionService;
+import com.distribuidos.authentication.services.idempotency.IdempotencyStore;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("/auth")
 public class AuthenticationController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
     private final AuthService service;
+    private final IdempotencyStore idempotencyStore;
+    private final TokenIntrospectionService tokenIntrospectionService;
     
     @PostMapping("/register")
-    public Mono<ResponseEntity<ResponseBody<Boolean>>> register(@RequestBody UserEntity user) {
+    public Mono<ResponseEntity<ResponseBody<Boolean>>> register(
+            @RequestBody UserEntity user,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         
         // implement validations
 
-        return service.authRegisterUser(user)
+        Mono<Boolean> registration = idempotencyKey == null
+                ? service.authRegisterUser(user)
+                : idempotencyStore.execute(idempotencyKey, user, Boolean.class, () -> service.authRegisterUser(user));
+
+        return registration
                 .map(ControllerUtils::created);
     }
     
@@ -37,4 +58,20 @@ public class AuthenticationController {
                 .map(ControllerUtils::ok);
     }
     
+    @GetMapping("/me")
+    public Mono<ResponseEntity<ResponseBody<UserEntity>>> me(@AuthenticationPrincipal TokenClaims claims) {
+        
+        return service.authCurrentUser(claims)
+                .map(user -> ControllerUtils.ok(user, CacheControl.noStore()));
+    }
+    
+    @PostMapping("/introspect")
+    public Mono<ResponseEntity<ResponseBody<List<TokenIntrospection>>>> introspect(
+            @RequestBody IntrospectionRequest introspectionRequest) {
+        
+        return tokenIntrospectionService.introspect(introspectionRequest)
+                .map(introspections -> ControllerUtils.ok(introspections,
+                        tokenIntrospectionService.cacheControl(introspections)));
+    }
+    
 }
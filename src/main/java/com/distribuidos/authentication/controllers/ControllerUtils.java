@@ -2,6 +2,8 @@ package com.distribuidos.authentication.controllers;
 
 import com.distribuidos.authentication.models.ResponseBody;
 import lombok.experimental.UtilityClass;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import static org.springframework.http.HttpStatus.CREATED;
@@ -10,24 +12,53 @@ import static org.springframework.http.HttpStatus.OK;
 @UtilityClass
 public class ControllerUtils {
     
+    // ResponseEntity headers are read-only, so boolean envelopes can be shared across exchanges
+    private static final ResponseEntity<ResponseBody<Boolean>> OK_TRUE = response(OK, true);
+    private static final ResponseEntity<ResponseBody<Boolean>> OK_FALSE = response(OK, false);
+    private static final ResponseEntity<ResponseBody<Boolean>> CREATED_TRUE = response(CREATED, true);
+    private static final ResponseEntity<ResponseBody<Boolean>> CREATED_FALSE = response(CREATED, false);
+    
     public static <T> ResponseEntity<ResponseBody<T>> ok(T result) {
+        if (result instanceof Boolean booleanResult) {
+            return cached(booleanResult ? OK_TRUE : OK_FALSE);
+        }
+        
+        return response(OK, result);
+    }
+    
+    public static <T> ResponseEntity<ResponseBody<T>> ok(T result, CacheControl cacheControl) {
         ResponseBody<T> orb = ResponseBody
                 .<T>builder()
                 .status(OK.value())
                 .result(result)
                 .build();
         
-        return ResponseEntity.ok(orb);
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(orb);
     }
     
     public static <T> ResponseEntity<ResponseBody<T>> created(T result) {
+        if (result instanceof Boolean booleanResult) {
+            return cached(booleanResult ? CREATED_TRUE : CREATED_FALSE);
+        }
+        
+        return response(CREATED, result);
+    }
+    
+    private static <T> ResponseEntity<ResponseBody<T>> response(HttpStatus status, T result) {
         ResponseBody<T> orb = ResponseBody
                 .<T>builder()
-                .status(CREATED.value())
+                .status(status.value())
                 .result(result)
                 .build();
         
-        return ResponseEntity.ok(orb);
+        return ResponseEntity.status(status).body(orb);
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> ResponseEntity<ResponseBody<T>> cached(ResponseEntity<ResponseBody<Boolean>> response) {
+        return (ResponseEntity) response;
     }
     
 }
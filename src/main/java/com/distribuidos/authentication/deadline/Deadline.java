@@ -0,0 +1,29 @@
+package com.distribuidos.authentication.deadline;
+
+import java.time.Duration;
+
+/**
+ * Absolute point in time by which a request must be answered. Carried in the Reactor context under
+ * the {@code Deadline} class key by {@link DeadlineWebFilter}.
+ */
+public final class Deadline {
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(expiresAtNanos - System.nanoTime(), 0));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+}
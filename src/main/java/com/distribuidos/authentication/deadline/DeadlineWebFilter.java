@@ -0,0 +1,47 @@
+package com.distribuidos.authentication.deadline;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Starts the deadline of every inbound request. The budget is the one configured for the route, or the
+ * default one, lowered to the value of the client timeout header when the client sends a smaller one.
+ */
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineWebFilter implements WebFilter {
+
+    private final EnvironmentConfig environmentConfig;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        EnvironmentConfig.RequestDeadline config = environmentConfig.getRequestDeadline();
+
+        long budgetInMs = config.getRouteBudgetsInMs()
+                .getOrDefault(exchange.getRequest().getPath().value(), config.getDefaultBudgetInMs());
+
+        String requestedBudget = exchange.getRequest().getHeaders().getFirst(config.getHeader());
+        if (requestedBudget != null) {
+            try {
+                budgetInMs = Math.min(budgetInMs, Long.parseLong(requestedBudget.trim()));
+            } catch (NumberFormatException e) {
+                // ignore malformed client budgets, the route budget still applies
+            }
+        }
+
+        Deadline deadline = Deadline.after(Duration.ofMillis(Math.max(budgetInMs, 0)));
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(Deadline.class, deadline));
+    }
+
+}
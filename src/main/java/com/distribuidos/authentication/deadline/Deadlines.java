@@ -0,0 +1,110 @@
+package com.distribuidos.authentication.deadline;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class Deadlines {
+
+    private final MeterRegistry meterRegistry;
+    private final EnvironmentConfig environmentConfig;
+
+    private final Map<String, PhaseMeters> phaseMeters = new ConcurrentHashMap<>();
+
+    /**
+     * Bounds a call, retries included, by what is left of the request deadline. Fails fast with
+     * {@link DeadlineExceededException} when nothing is left, and records the time and the share of the
+     * remaining budget the phase consumed. Calls made outside a request (no deadline) are untouched.
+     */
+    public <T> Function<Mono<T>, Mono<T>> bound(String phase) {
+        return call -> Mono.deferContextual(context -> {
+            Optional<Deadline> deadline = context.getOrEmpty(Deadline.class);
+            if (deadline.isEmpty()) {
+                return call;
+            }
+
+            PhaseMeters meters = meters(phase);
+            Duration remaining = deadline.get().remaining();
+            if (remaining.isZero()) {
+                meters.exceeded.increment();
+                return Mono.error(new DeadlineExceededException(phase));
+            }
+
+            long start = System.nanoTime();
+            return call
+                    .timeout(remaining, Mono.error(() -> {
+                        meters.exceeded.increment();
+                        return new DeadlineExceededException(phase);
+                    }))
+                    .doFinally(signal -> {
+                        long elapsed = System.nanoTime() - start;
+                        meters.duration.record(elapsed, TimeUnit.NANOSECONDS);
+                        meters.budgetConsumed.record(Math.min(1.0, (double) elapsed / remaining.toNanos()));
+                    });
+        });
+    }
+
+    /**
+     * Guards every attempt of a retried call, applied before {@code retryWhen}. An attempt is not started
+     * when less than {@code min-attempt-budget-in-ms} of the request deadline is left, so a retry that
+     * cannot complete fails fast instead of holding a connection until {@link #bound} cuts it.
+     */
+    public <T> Function<Mono<T>, Mono<T>> attempt(String phase) {
+        return call -> Mono.deferContextual(context -> {
+            Optional<Deadline> deadline = context.getOrEmpty(Deadline.class);
+            if (deadline.isEmpty()) {
+                return call;
+            }
+
+            long minAttemptBudgetInMs = environmentConfig.getRequestDeadline().getMinAttemptBudgetInMs();
+            if (deadline.get().remaining().toMillis() < minAttemptBudgetInMs) {
+                meters(phase).exceeded.increment();
+                return Mono.error(new DeadlineExceededException(phase));
+            }
+            return call;
+        });
+    }
+
+    private PhaseMeters meters(String phase) {
+        return phaseMeters.computeIfAbsent(phase, ignored -> new PhaseMeters(phase, meterRegistry));
+    }
+
+    private static final class PhaseMeters {
+
+        private final Timer duration;
+        private final DistributionSummary budgetConsumed;
+        private final Counter exceeded;
+
+        private PhaseMeters(String phase, MeterRegistry meterRegistry) {
+            this.duration = Timer.builder("auth.deadline.phase.duration")
+                    .description("Time spent in a deadline-bounded phase")
+                    .tag("phase", phase)
+                    .register(meterRegistry);
+            this.budgetConsumed = DistributionSummary.builder("auth.deadline.phase.budget.consumed")
+                    .description("Share of the remaining request budget consumed by a phase")
+                    .tag("phase", phase)
+                    .publishPercentiles(0.5, 0.9, 0.99)
+                    .register(meterRegistry);
+            this.exceeded = Counter.builder("auth.deadline.exceeded")
+                    .description("Phases failed because the request deadline was exhausted")
+                    .tag("phase", phase)
+                    .register(meterRegistry);
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.distribuidos.authentication.eventloop;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules a no-op task on every Netty event loop shared by the server and the upstream clients and
+ * records how late it runs. The delay is the time the loop spent busy with other work, a parked or
+ * blocked loop shows up as a long tail in {@code auth.eventloop.lag} for that loop.
+ */
+@Slf4j
+@Component
+public class EventLoopLagProbe {
+
+    private final EnvironmentConfig environmentConfig;
+    private final MeterRegistry meterRegistry;
+    private final List<Probe> probes = new ArrayList<>();
+
+    public EventLoopLagProbe(EnvironmentConfig environmentConfig, MeterRegistry meterRegistry) {
+        this.environmentConfig = environmentConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        EnvironmentConfig.EventLoopLag eventLoopLag = environmentConfig.getEventLoopLag();
+        if (!eventLoopLag.getEnabled()) {
+            return;
+        }
+
+        EventLoopGroup loops = HttpResources.get().onServer(true);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(eventLoopLag.getIntervalInMs());
+        int index = 0;
+        for (EventExecutor loop : loops) {
+            Timer lag = Timer.builder("auth.eventloop.lag")
+                    .description("Delay between the scheduled and the actual run of a probe task")
+                    .tag("loop", String.valueOf(index++))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(intervalNanos / 100))
+                    .register(meterRegistry);
+            Probe probe = new Probe(loop, lag, intervalNanos);
+            probes.add(probe);
+            probe.schedule();
+        }
+        log.info("Event loop lag probe started on {} loops every {} ms", probes.size(),
+                eventLoopLag.getIntervalInMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        probes.forEach(Probe::cancel);
+    }
+
+    private static final class Probe implements Runnable {
+
+        private final EventExecutor loop;
+        private final Timer lag;
+        private final long intervalNanos;
+
+        private volatile boolean cancelled;
+        private long scheduledAt;
+        private volatile ScheduledFuture<?> next;
+
+        private Probe(EventExecutor loop, Timer lag, long intervalNanos) {
+            this.loop = loop;
+            this.lag = lag;
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        public void run() {
+            lag.record(Math.max(0, System.nanoTime() - scheduledAt - intervalNanos), TimeUnit.NANOSECONDS);
+            schedule();
+        }
+
+        // Rescheduled after each run rather than at a fixed rate, so a stalled loop does not queue catch-up runs
+        private void schedule() {
+            if (cancelled || loop.isShuttingDown()) {
+                return;
+            }
+            scheduledAt = System.nanoTime();
+            next = loop.schedule(this, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> scheduled = next;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+}
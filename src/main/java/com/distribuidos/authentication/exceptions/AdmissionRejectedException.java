@@ -0,0 +1,16 @@
+package com.distribuidos.authentication.exceptions;
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final String reason;
+
+    public AdmissionRejectedException(String reason) {
+        super("Request rejected by admission control: " + reason, null, false, false);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+}
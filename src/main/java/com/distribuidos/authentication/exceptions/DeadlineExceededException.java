@@ -0,0 +1,9 @@
+package com.distribuidos.authentication.exceptions;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String phase) {
+        super("Request deadline exceeded during " + phase);
+    }
+
+}
@@ -11,6 +11,7 @@ public class ErrorCodes {
     public static final String CENTRALIZER_UPSTREAM_VALIDATE_USER_ERROR = PREFIX + "02";
     public static final String USER_CREATION_UPSTREAM_ERROR = PREFIX + "03";
     public static final String USER_BY_DOCUMENT_UPSTREAM_ERROR = PREFIX + "04";
+    public static final String USERS_BATCH_UPSTREAM_ERROR = PREFIX + "05";
 
 
 }
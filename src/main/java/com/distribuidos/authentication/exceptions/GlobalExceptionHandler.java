@@ -16,6 +16,36 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage()));
     }
     
+    @ExceptionHandler(InvalidIntrospectionRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST) // 400 Bad Request
+    public Mono<ResponseEntity<String>> handleInvalidIntrospectionRequest(InvalidIntrospectionRequestException ex) {
+        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(InvalidTokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED) // 401 Unauthorized
+    public Mono<ResponseEntity<String>> handleInvalidToken(InvalidTokenException ex) {
+        return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY) // 422 Unprocessable Entity
+    public Mono<ResponseEntity<String>> handleIdempotencyKeyConflict(IdempotencyKeyConflictException ex) {
+        return Mono.just(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(IdempotencyCapacityException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS) // 429 Too Many Requests
+    public Mono<ResponseEntity<String>> handleIdempotencyCapacity(IdempotencyCapacityException ex) {
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT) // 504 Gateway Timeout
+    public Mono<ResponseEntity<String>> handleDeadlineExceeded(DeadlineExceededException ex) {
+        return Mono.just(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(ex.getMessage()));
+    }
+    
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Mono<ResponseEntity<String>> handleServerError(Exception ex) {
@@ -0,0 +1,9 @@
+package com.distribuidos.authentication.exceptions;
+
+public class IdempotencyCapacityException extends RuntimeException {
+
+    public IdempotencyCapacityException() {
+        super("Too many idempotent requests in progress, retry later", null, false, false);
+    }
+
+}
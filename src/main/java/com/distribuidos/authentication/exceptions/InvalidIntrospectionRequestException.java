@@ -0,0 +1,9 @@
+package com.distribuidos.authentication.exceptions;
+
+public class InvalidIntrospectionRequestException extends RuntimeException {
+
+    public InvalidIntrospectionRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.distribuidos.authentication.exceptions;
+
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+}
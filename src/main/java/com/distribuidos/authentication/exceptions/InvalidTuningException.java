@@ -0,0 +1,9 @@
+package com.distribuidos.authentication.exceptions;
+
+public class InvalidTuningException extends RuntimeException {
+
+    public InvalidTuningException(String message) {
+        super(message);
+    }
+
+}
@@ -1,7 +1,15 @@
 package com.distribuidos.authentication.exceptions;
 
+import com.distribuidos.authentication.logging.LogRedaction;
+
 public class UserNotFoundException extends RuntimeException {
     public UserNotFoundException(String message) {
         super(message);
     }
+
+    // The message ends up in logs, so the document ID is redacted like every other logged one
+    public static UserNotFoundException forDocument(Object documentId) {
+        return new UserNotFoundException("User with document " + LogRedaction.documentId(documentId)
+                + " was not found.");
+    }
 }
@@ -0,0 +1,29 @@
+package com.distribuidos.authentication.logging;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class LogRedaction {
+
+    private static final int VISIBLE_SUFFIX_LENGTH = 4;
+    private static final char MASK = '*';
+
+    /**
+     * Masks a document ID for logging, keeping only the last digits so support can still correlate
+     * entries with a user report.
+     */
+    public static String documentId(Object documentId) {
+        if (documentId == null) {
+            return null;
+        }
+
+        String value = documentId.toString();
+        int masked = Math.max(value.length() - VISIBLE_SUFFIX_LENGTH, 0);
+        StringBuilder redacted = new StringBuilder(value.length());
+        for (int i = 0; i < masked; i++) {
+            redacted.append(MASK);
+        }
+        return redacted.append(value, masked, value.length()).toString();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.distribuidos.authentication.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one out of {@code rate} INFO (and lower) events per log statement for loggers under
+ * {@code loggerPrefix}. Events are keyed by their message template, so a noisy statement does not
+ * starve a rare one. At most {@code maxTemplates} statements get their own counter, the rest share one.
+ * WARN and ERROR always pass.
+ */
+@Setter
+public class SampledInfoFilter extends Filter<ILoggingEvent> {
+
+    private int rate = 1;
+    private String loggerPrefix = "";
+    private int maxTemplates = 1024;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    // Shared by the templates seen once the map is full, e.g. messages built by concatenation
+    private final AtomicLong overflow = new AtomicLong();
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (rate <= 1
+                || event.getLevel().isGreaterOrEqual(Level.WARN)
+                || !event.getLoggerName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long count = counter(event.getMessage()).getAndIncrement();
+        return count % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private AtomicLong counter(String template) {
+        AtomicLong counter = counters.get(template);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= maxTemplates) {
+            return overflow;
+        }
+        return counters.computeIfAbsent(template, ignored -> new AtomicLong());
+    }
+
+}
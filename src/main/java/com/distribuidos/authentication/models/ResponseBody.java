@@ -2,11 +2,13 @@ package com.distribuidos.authentication.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.beans.ConstructorProperties;
 
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonSerialize(using = ResponseBodySerializer.class)
 public class ResponseBody<T> {
     
     private final T result;
@@ -0,0 +1,51 @@
+package com.distribuidos.authentication.models;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes the {@link ResponseBody} envelope field by field instead of going through bean introspection.
+ * Keeps the same output as the reflective mapping: {@code result, status, error}, skipping empty values.
+ */
+public class ResponseBodySerializer extends StdSerializer<ResponseBody<?>> {
+
+    private static final String RESULT_FIELD = "result";
+    private static final String STATUS_FIELD = "status";
+    private static final String ERROR_FIELD = "error";
+
+    public ResponseBodySerializer() {
+        super(ResponseBody.class, false);
+    }
+
+    @Override
+    public void serialize(ResponseBody<?> value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+
+        generator.writeStartObject(value);
+
+        Object result = value.getResult();
+        if (result instanceof Boolean booleanResult) {
+            generator.writeBooleanField(RESULT_FIELD, booleanResult);
+        } else if (result != null) {
+            JsonSerializer<Object> resultSerializer = provider.findValueSerializer(result.getClass());
+            if (!resultSerializer.isEmpty(provider, result)) {
+                generator.writeFieldName(RESULT_FIELD);
+                resultSerializer.serialize(result, generator, provider);
+            }
+        }
+
+        generator.writeNumberField(STATUS_FIELD, value.getStatus());
+
+        String error = value.getError();
+        if (error != null && !error.isEmpty()) {
+            generator.writeStringField(ERROR_FIELD, error);
+        }
+
+        generator.writeEndObject();
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.distribuidos.authentication.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TokenIntrospection {
+
+    boolean active;
+    String sub;
+    Long iat;
+    Long exp;
+
+}
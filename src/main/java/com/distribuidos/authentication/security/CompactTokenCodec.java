@@ -0,0 +1,184 @@
+package com.distribuidos.authentication.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Binary token with a fixed layout, HMAC-SHA256 authenticated:
+ * <pre>
+ * ct1.base64url(version:1 | iat:8 | exp:8 | subjectLength:2 | subject:n | [profile] | mac:32)
+ * profile = nameLength:2 | name:n | emailLength:2 | email:n | statusLength:2 | status:n
+ * </pre>
+ * Timestamps are epoch seconds. The profile section is only written when the claims carry one, a zero
+ * length marks an absent field, so tokens issued without enrichment keep their original size.
+ * Verification is a single MAC over the payload bytes followed by positional reads, there is no JSON to
+ * parse.
+ */
+@Component
+public class CompactTokenCodec implements TokenCodec {
+
+    public static final String NAME = "compact";
+
+    private static final String PREFIX = "ct1.";
+    private static final byte VERSION = 1;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    private static final int FIXED_PAYLOAD_LENGTH = 1 + Long.BYTES + Long.BYTES + Short.BYTES;
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public CompactTokenCodec(@Value("${jwt.secret}") String secret) {
+        this.key = new SecretKeySpec(Base64.getDecoder().decode(secret), MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean owns(String token) {
+        return token.startsWith(PREFIX);
+    }
+
+    @Override
+    public String encode(TokenClaims claims) {
+        byte[] subject = toBytes(claims.getSubject());
+        byte[][] profile = claims.hasProfile()
+                ? new byte[][]{toBytes(claims.getFullName()), toBytes(claims.getEmail()), toBytes(claims.getStatus())}
+                : new byte[0][];
+
+        int profileLength = 0;
+        for (byte[] field : profile) {
+            profileLength += Short.BYTES + field.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_PAYLOAD_LENGTH + subject.length + profileLength + MAC_LENGTH)
+                .put(VERSION)
+                .putLong(claims.getIssuedAt().getEpochSecond())
+                .putLong(claims.getExpiresAt().getEpochSecond())
+                .putShort((short) subject.length)
+                .put(subject);
+        for (byte[] field : profile) {
+            buffer.putShort((short) field.length).put(field);
+        }
+
+        Mac hmac = mac.get();
+        hmac.update(buffer.array(), 0, buffer.position());
+        try {
+            hmac.doFinal(buffer.array(), buffer.position());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign compact token", e);
+        }
+
+        return PREFIX + ENCODER.encodeToString(buffer.array());
+    }
+
+    @Override
+    public Optional<TokenClaims> decode(String token) {
+        if (!owns(token)) {
+            return Optional.empty();
+        }
+
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (bytes.length < FIXED_PAYLOAD_LENGTH + MAC_LENGTH) {
+            return Optional.empty();
+        }
+
+        int payloadLength = bytes.length - MAC_LENGTH;
+        Mac hmac = mac.get();
+        hmac.update(bytes, 0, payloadLength);
+        byte[] expected = hmac.doFinal();
+        byte[] actual = new byte[MAC_LENGTH];
+        System.arraycopy(bytes, payloadLength, actual, 0, MAC_LENGTH);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Optional.empty();
+        }
+
+        try {
+            ByteBuffer payload = ByteBuffer.wrap(bytes, 0, payloadLength);
+            if (payload.get() != VERSION) {
+                return Optional.empty();
+            }
+            Instant issuedAt = Instant.ofEpochSecond(payload.getLong());
+            Instant expiresAt = Instant.ofEpochSecond(payload.getLong());
+            if (!Instant.now().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+
+            TokenClaims.TokenClaimsBuilder claims = TokenClaims.builder()
+                    .subject(readField(payload))
+                    .issuedAt(issuedAt)
+                    .expiresAt(expiresAt);
+            if (payload.hasRemaining()) {
+                claims.fullName(emptyToNull(readField(payload)))
+                        .email(emptyToNull(readField(payload)))
+                        .status(emptyToNull(readField(payload)));
+            }
+            if (payload.hasRemaining()) {
+                return Optional.empty();
+            }
+            return Optional.of(claims.build());
+        } catch (BufferUnderflowException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] toBytes(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Compact token field exceeds " + MAX_FIELD_LENGTH + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String readField(ByteBuffer payload) {
+        int length = Short.toUnsignedInt(payload.getShort());
+        if (length > payload.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(payload.array(), payload.position(), length, StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac hmac = Mac.getInstance(MAC_ALGORITHM);
+            hmac.init(key);
+            return hmac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + MAC_ALGORITHM, e);
+        }
+    }
+
+}
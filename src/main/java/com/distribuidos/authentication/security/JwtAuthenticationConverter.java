@@ -20,15 +20,8 @@ public class JwtAuthenticationConverter implements ServerAuthenticationConverter
     public Mono<Authentication> convert(ServerWebExchange exchange) {
         return Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
                 .filter(authHeader -> authHeader.startsWith("Bearer "))
-                .flatMap(authHeader -> {
-                    String authToken = authHeader.substring(7);
-                    if (jwtUtil.validateToken(authToken)) {
-                        String username = jwtUtil.getUsernameFromToken(authToken);
-                        Authentication auth = new UsernamePasswordAuthenticationToken(username, null,
-                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
-                        return Mono.just(auth);
-                    }
-                    return Mono.empty();
-                });
+                .flatMap(authHeader -> Mono.justOrEmpty(jwtUtil.verify(authHeader.substring(7))))
+                .map(claims -> new UsernamePasswordAuthenticationToken(claims, null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
     }
-}
\ No newline at end of file
+}
@@ -8,6 +8,8 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 @AllArgsConstructor
 public class JwtAuthenticationFilter implements WebFilter {
     
@@ -15,12 +17,14 @@ public class JwtAuthenticationFilter implements WebFilter {
     
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // Branches on the conversion result, chain.filter completes empty so switchIfEmpty would run it twice
         return this.authenticationConverter.convert(exchange)
-                .flatMap(authentication -> {
-                    SecurityContextImpl securityContext = new SecurityContextImpl(authentication);
-                    return chain.filter(exchange)
-                            .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(securityContext)));
-                })
-                .switchIfEmpty(chain.filter(exchange));
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(value -> chain.filter(exchange).contextWrite(
+                                ReactiveSecurityContextHolder.withSecurityContext(
+                                        Mono.just(new SecurityContextImpl(value)))))
+                        .orElseGet(() -> chain.filter(exchange)));
     }
 }
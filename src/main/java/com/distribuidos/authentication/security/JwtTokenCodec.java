@@ -0,0 +1,88 @@
+package com.distribuidos.authentication.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * HS512 signed JWT, the default format.
+ */
+@Component
+public class JwtTokenCodec implements TokenCodec {
+
+    public static final String NAME = "jwt";
+
+    // Base64url of '{"', how every JWT header starts
+    private static final String JWT_PREFIX = "eyJ";
+
+    private final String secret;
+
+    public JwtTokenCodec(@Value("${jwt.secret}") String secret) {
+        this.secret = secret;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean owns(String token) {
+        return token.startsWith(JWT_PREFIX);
+    }
+
+    @Override
+    public String encode(TokenClaims claims) {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(claims.getSubject())
+                .setIssuedAt(Date.from(claims.getIssuedAt()))
+                .setExpiration(Date.from(claims.getExpiresAt()));
+        if (claims.getFullName() != null) {
+            builder.claim(TokenClaims.NAME_CLAIM, claims.getFullName());
+        }
+        if (claims.getEmail() != null) {
+            builder.claim(TokenClaims.EMAIL_CLAIM, claims.getEmail());
+        }
+        if (claims.getStatus() != null) {
+            builder.claim(TokenClaims.STATUS_CLAIM, claims.getStatus());
+        }
+
+        return builder
+                .signWith(SignatureAlgorithm.HS512, secret)
+                .compact();
+    }
+
+    @Override
+    public Optional<TokenClaims> decode(String token) {
+        try {
+            Claims claims = Jwts.parser()
+                    .setSigningKey(secret)
+                    .parseClaimsJws(token)
+                    .getBody();
+
+            return Optional.of(TokenClaims.builder()
+                    .subject(claims.getSubject())
+                    .issuedAt(toInstant(claims.getIssuedAt()))
+                    .expiresAt(toInstant(claims.getExpiration()))
+                    .fullName(claims.get(TokenClaims.NAME_CLAIM, String.class))
+                    .email(claims.get(TokenClaims.EMAIL_CLAIM, String.class))
+                    .status(claims.get(TokenClaims.STATUS_CLAIM, String.class))
+                    .build());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+
+}
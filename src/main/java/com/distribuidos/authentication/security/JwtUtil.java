@@ -1,51 +1,143 @@
 package com.distribuidos.authentication.security;
 
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.Claims;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+@Slf4j
 @Component
 public class JwtUtil {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final List<TokenCodec> codecs;
+    private final TokenCodec issuingCodec;
+    private final Long expiration;
+    private final List<String> profileClaims;
+    private final Integer maxTokenLength;
     
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    // Tokens whose signature was already checked. Least recently used ones are evicted one at a time once
+    // full, so a burst of new tokens does not flush the tokens in use; expired ones are dropped on read
+    private final Map<String, TokenClaims> verifiedTokens;
+    
+    public JwtUtil(List<TokenCodec> codecs,
+                   @Value("${jwt.codec}") String codec,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.verified-cache-max-entries}") Integer verifiedCacheMaxEntries,
+                   @Value("${jwt.profile-claims}") String profileClaims,
+                   @Value("${jwt.max-token-length}") Integer maxTokenLength) {
+        this.codecs = codecs;
+        this.issuingCodec = codecs.stream()
+                .filter(candidate -> candidate.name().equals(codec))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown token codec: " + codec));
+        this.expiration = expiration;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenClaims> eldest) {
+                return size() > verifiedCacheMaxEntries;
+            }
+        };
+        this.profileClaims = Arrays.stream(profileClaims.split(","))
+                .map(String::trim)
+                .filter(claim -> !claim.isEmpty())
+                .map(JwtUtil::requireKnownProfileClaim)
+                .toList();
+        this.maxTokenLength = maxTokenLength;
+    }
     
     public String generateToken(String documentId) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
+        return issuingCodec.encode(baseClaims(documentId));
+    }
+    
+    /**
+     * Issues a token carrying the configured profile claims of the user. When the token would exceed
+     * the size budget, claims are dropped starting from the last configured one until it fits.
+     */
+    public String generateToken(UserEntity user) {
+        TokenClaims claims = baseClaims(user.getDocumentId().toString());
         
-        return Jwts.builder()
-                .setSubject(documentId)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS512, secret)
-                .compact();
+        int included = profileClaims.size();
+        String token = issuingCodec.encode(withProfile(claims, user, profileClaims));
+        while (token.length() > maxTokenLength && included > 0) {
+            included--;
+            token = issuingCodec.encode(withProfile(claims, user, profileClaims.subList(0, included)));
+        }
+        if (included < profileClaims.size()) {
+            log.debug("Token over {} chars, dropped profile claims {}", maxTokenLength,
+                    profileClaims.subList(included, profileClaims.size()));
+        }
+        return token;
     }
     
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token)
-                .getBody();
+    public Optional<TokenClaims> verify(String token) {
+        Instant now = Instant.now();
         
-        return claims.getSubject();
+        TokenClaims cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(token);
+            if (cached != null && !cached.isActiveAt(now)) {
+                verifiedTokens.remove(token);
+                return Optional.empty();
+            }
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        for (TokenCodec codec : codecs) {
+            if (codec.owns(token)) {
+                Optional<TokenClaims> verified = codec.decode(token);
+                verified.ifPresent(claims -> {
+                    synchronized (verifiedTokens) {
+                        verifiedTokens.put(token, claims);
+                    }
+                });
+                return verified;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    public String getUsernameFromToken(String token) {
+        return verify(token)
+                .map(TokenClaims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid or expired token"));
     }
     
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser().setSigningKey(secret).parseClaimsJws(authToken);
-            return true;
-        } catch (Exception e) {
-            // Log the exception
-        }
+        return verify(authToken).isPresent();
+    }
+    
+    private TokenClaims baseClaims(String documentId) {
+        Instant now = Instant.now();
         
-        return false;
+        return TokenClaims.builder()
+                .subject(documentId)
+                .issuedAt(now)
+                .expiresAt(now.plusMillis(expiration))
+                .build();
+    }
+    
+    private static TokenClaims withProfile(TokenClaims claims, UserEntity user, List<String> included) {
+        return claims.toBuilder()
+                .fullName(included.contains(TokenClaims.NAME_CLAIM) ? user.getFullName() : null)
+                .email(included.contains(TokenClaims.EMAIL_CLAIM) ? user.getEmail() : null)
+                .status(included.contains(TokenClaims.STATUS_CLAIM) ? user.getStatus() : null)
+                .build();
+    }
+    
+    private static String requireKnownProfileClaim(String claim) {
+        if (!List.of(TokenClaims.NAME_CLAIM, TokenClaims.EMAIL_CLAIM, TokenClaims.STATUS_CLAIM).contains(claim)) {
+            throw new IllegalArgumentException("Unknown profile claim: " + claim);
+        }
+        return claim;
     }
-}
\ No newline at end of file
+}
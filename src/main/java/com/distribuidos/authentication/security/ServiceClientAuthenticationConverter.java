@@ -0,0 +1,64 @@
+package com.distribuidos.authentication.security;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Authenticates internal callers (resource servers, operators) from HTTP Basic credentials checked against
+ * the configured service clients. The client is granted {@code ROLE_<role>} for each of its roles.
+ */
+@AllArgsConstructor
+public class ServiceClientAuthenticationConverter implements ServerAuthenticationConverter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Map<String, EnvironmentConfig.ServiceClient> serviceClients;
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        return Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .filter(authHeader -> authHeader.startsWith(BASIC_PREFIX))
+                .flatMap(authHeader -> Mono.justOrEmpty(authenticate(authHeader.substring(BASIC_PREFIX.length()))));
+    }
+
+    Optional<Authentication> authenticate(String encodedCredentials) {
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(encodedCredentials.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        int separator = credentials.indexOf(':');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        String clientId = credentials.substring(0, separator);
+        String secret = credentials.substring(separator + 1);
+
+        EnvironmentConfig.ServiceClient client = serviceClients.get(clientId);
+        if (client == null || client.getSecret() == null || client.getSecret().isBlank()
+                || !MessageDigest.isEqual(client.getSecret().getBytes(StandardCharsets.UTF_8),
+                secret.getBytes(StandardCharsets.UTF_8))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new UsernamePasswordAuthenticationToken(clientId, null, client.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.trim()))
+                .toList()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.distribuidos.authentication.security;
+
+import lombok.AllArgsConstructor;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+@AllArgsConstructor
+public class ServiceClientAuthenticationFilter implements WebFilter {
+    
+    private final ServiceClientAuthenticationConverter authenticationConverter;
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // Branches on the conversion result, chain.filter completes empty so switchIfEmpty would run it twice
+        return this.authenticationConverter.convert(exchange)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(value -> chain.filter(exchange).contextWrite(
+                                ReactiveSecurityContextHolder.withSecurityContext(
+                                        Mono.just(new SecurityContextImpl(value)))))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+}
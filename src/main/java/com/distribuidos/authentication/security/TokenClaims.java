@@ -0,0 +1,39 @@
+package com.distribuidos.authentication.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.security.Principal;
+import java.time.Instant;
+
+@Value
+@Builder(toBuilder = true)
+public class TokenClaims implements Principal {
+
+    public static final String NAME_CLAIM = "name";
+    public static final String EMAIL_CLAIM = "email";
+    public static final String STATUS_CLAIM = "status";
+
+    String subject;
+    Instant issuedAt;
+    Instant expiresAt;
+
+    // Profile claims, only present when enrichment is enabled for them
+    String fullName;
+    String email;
+    String status;
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    public boolean isActiveAt(Instant instant) {
+        return expiresAt == null || instant.isBefore(expiresAt);
+    }
+
+    public boolean hasProfile() {
+        return fullName != null || email != null || status != null;
+    }
+
+}
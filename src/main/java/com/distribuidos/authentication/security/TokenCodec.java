@@ -0,0 +1,28 @@
+package com.distribuidos.authentication.security;
+
+import java.util.Optional;
+
+/**
+ * Wire format of the access tokens issued by {@link JwtUtil}. Every codec owns a distinct prefix so tokens
+ * of any configured format can be verified while the issuing format is being migrated.
+ */
+public interface TokenCodec {
+
+    /**
+     * Name used to select the issuing codec with {@code jwt.codec}.
+     */
+    String name();
+
+    /**
+     * Whether the token was produced by this codec, without verifying it.
+     */
+    boolean owns(String token);
+
+    String encode(TokenClaims claims);
+
+    /**
+     * Verifies the token signature and expiration, empty when either check fails.
+     */
+    Optional<TokenClaims> decode(String token);
+
+}
@@ -2,13 +2,17 @@ package com.distribuidos.authentication.services;
 
 import com.distribuidos.authentication.config.EnvironmentConfig;
 import com.distribuidos.authentication.exceptions.CentralizerValidateUserException;
+import com.distribuidos.authentication.exceptions.InvalidTokenException;
 import com.distribuidos.authentication.exceptions.UserAlreadyExistsException;
+import com.distribuidos.authentication.logging.LogRedaction;
 import com.distribuidos.authentication.models.LoginRequest;
 import com.distribuidos.authentication.services.facades.centralizer.CentralizerFacade;
 import com.distribuidos.authentication.services.facades.centralizer.models.RegisterCitizenRequest;
 import com.distribuidos.authentication.services.facades.users.UsersFacade;
 import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.distribuidos.authentication.services.registry.RegisteredDocumentsFilter;
 import com.distribuidos.authentication.security.JwtUtil;
+import com.distribuidos.authentication.security.TokenClaims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,6 +29,7 @@ public class AuthService {
     private final CentralizerFacade centralizerFacade;
     private final UsersFacade usersFacade;
     private final EnvironmentConfig environmentConfig;
+    private final RegisteredDocumentsFilter registeredDocumentsFilter;
 
     private RegisterCitizenRequest mapUserRequest(UserEntity user) {
         return RegisterCitizenRequest.builder()
@@ -42,9 +47,12 @@ public class AuthService {
                 .password(passwordEncoder.encode(user.getPassword()))
                 .build();
 
-        Mono<Boolean> isUserValidMono = centralizerFacade.validateUser(user.getDocumentId().toString());
-        Mono<UserEntity> userAlreadyExistsMono = usersFacade.findUserByDocumentId(user.getDocumentId().toString())
-                .defaultIfEmpty(UserEntity.builder().build());
+        String documentId = user.getDocumentId().toString();
+        Mono<Boolean> isUserValidMono = centralizerFacade.validateUser(documentId);
+        Mono<UserEntity> userAlreadyExistsMono = registeredDocumentsFilter.isDefinitelyNotRegistered(documentId)
+                ? Mono.just(UserEntity.builder().build())
+                : usersFacade.findUserByDocumentId(documentId)
+                        .defaultIfEmpty(UserEntity.builder().build());
 
         return Mono.zip(isUserValidMono, userAlreadyExistsMono)
                 .flatMap(tuple -> {
@@ -54,6 +62,7 @@ public class AuthService {
                     if (isUserValid) {
                         if (userExist.getDocumentId() == null) {
                             return usersFacade.createUser(encodedUser)
+                                    .doOnNext(created -> registeredDocumentsFilter.recordRegistered(documentId))
                                     .flatMap(createdUser -> centralizerFacade
                                             .registerCitizen(mapUserRequest(encodedUser)))
                                     .thenReturn(true);
@@ -68,15 +77,35 @@ public class AuthService {
 
     public Mono<UserEntity> authLoginUser(LoginRequest loginRequest) {
 
-        log.info("Authenticating user " + loginRequest.getDocument());
+        log.info("Authenticating user {}", LogRedaction.documentId(loginRequest.getDocument()));
 
         return usersFacade.findUserByDocumentId(loginRequest.getDocument())
                 .filter(userEntity -> passwordEncoder.matches(loginRequest.getPassword(), userEntity.getPassword()))
                 .map(userEntity -> {
-                    String token = jwtUtil.generateToken(userEntity.getDocumentId().toString());
+                    String token = jwtUtil.generateToken(userEntity);
                     return userEntity.toBuilder()
                             .token(token)
                             .build();
                 });
     }
+
+    /**
+     * Profile of the caller, rebuilt from the already verified token without calling the users service.
+     */
+    public Mono<UserEntity> authCurrentUser(TokenClaims claims) {
+        Long documentId;
+        try {
+            documentId = Long.valueOf(claims.getSubject());
+        } catch (NumberFormatException e) {
+            // A validly signed token whose subject is not a document ID does not identify a user
+            return Mono.error(new InvalidTokenException("Token subject is not a document ID"));
+        }
+
+        return Mono.just(UserEntity.builder()
+                .documentId(documentId)
+                .fullName(claims.getFullName())
+                .email(claims.getEmail())
+                .status(claims.getStatus())
+                .build());
+    }
 }
@@ -0,0 +1,92 @@
+package com.distribuidos.authentication.services;
+
+import com.distribuidos.authentication.exceptions.InvalidIntrospectionRequestException;
+import com.distribuidos.authentication.models.IntrospectionRequest;
+import com.distribuidos.authentication.models.TokenIntrospection;
+import com.distribuidos.authentication.security.JwtUtil;
+import com.distribuidos.authentication.security.TokenClaims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    private static final TokenIntrospection INACTIVE = TokenIntrospection.builder()
+            .active(false)
+            .build();
+
+    private final JwtUtil jwtUtil;
+
+    @Value("${jwt.introspection-max-batch-size}")
+    private Integer maxBatchSize;
+
+    public Mono<List<TokenIntrospection>> introspect(IntrospectionRequest request) {
+        return Mono.fromSupplier(() -> {
+            List<String> tokens = tokens(request);
+            List<TokenIntrospection> introspections = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                introspections.add(jwtUtil.verify(token)
+                        .map(TokenIntrospectionService::active)
+                        .orElse(INACTIVE));
+            }
+            return introspections;
+        });
+    }
+
+    /**
+     * Introspection results can be cached until the first active token of the batch expires. Batches
+     * without any active token are not cached.
+     */
+    public CacheControl cacheControl(List<TokenIntrospection> introspections) {
+        long now = Instant.now().getEpochSecond();
+        long maxAge = Long.MAX_VALUE;
+        for (TokenIntrospection introspection : introspections) {
+            if (introspection.isActive() && introspection.getExp() != null) {
+                maxAge = Math.min(maxAge, introspection.getExp() - now);
+            }
+        }
+
+        if (maxAge == Long.MAX_VALUE || maxAge <= 0) {
+            return CacheControl.noStore();
+        }
+        return CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePrivate();
+    }
+
+    private List<String> tokens(IntrospectionRequest request) {
+        List<String> tokens = new ArrayList<>();
+        if (request.getToken() != null) {
+            tokens.add(request.getToken());
+        }
+        if (request.getTokens() != null) {
+            tokens.addAll(request.getTokens());
+        }
+
+        if (tokens.isEmpty()) {
+            throw new InvalidIntrospectionRequestException("No token to introspect");
+        }
+        if (tokens.size() > maxBatchSize) {
+            throw new InvalidIntrospectionRequestException("At most " + maxBatchSize
+                    + " tokens can be introspected per request");
+        }
+        return tokens;
+    }
+
+    private static TokenIntrospection active(TokenClaims claims) {
+        return TokenIntrospection.builder()
+                .active(true)
+                .sub(claims.getSubject())
+                .iat(claims.getIssuedAt() == null ? null : claims.getIssuedAt().getEpochSecond())
+                .exp(claims.getExpiresAt() == null ? null : claims.getExpiresAt().getEpochSecond())
+                .build();
+    }
+
+}
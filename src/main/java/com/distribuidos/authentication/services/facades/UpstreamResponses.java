@@ -0,0 +1,81 @@
+package com.distribuidos.authentication.services.facades;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@UtilityClass
+public class UpstreamResponses {
+
+    private static final String TRUNCATION_MARKER = "...[truncated]";
+
+    /**
+     * Reads at most {@code maxBytes} of an upstream body for diagnostics. The remaining bytes are never
+     * aggregated: the body subscription is cancelled once the limit is reached and the exchange releases
+     * the rest of the connection content. Always emits, an empty body yields an empty string.
+     */
+    public static Mono<String> readErrorBody(ClientResponse response, int maxBytes) {
+        return Mono.defer(() -> {
+            BoundedBody body = new BoundedBody(maxBytes);
+            return response.body(BodyExtractors.toDataBuffers())
+                    .doOnNext(body::append)
+                    .takeUntil(ignored -> body.isFull())
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromSupplier(body::asString));
+        });
+    }
+
+    private static final class BoundedBody {
+
+        private final int maxBytes;
+        // One extra byte tells a body of exactly maxBytes apart from a truncated one
+        private final byte[] bytes;
+        private int length;
+
+        private BoundedBody(int maxBytes) {
+            this.maxBytes = maxBytes;
+            this.bytes = new byte[maxBytes + 1];
+        }
+
+        private void append(DataBuffer buffer) {
+            try {
+                int toCopy = Math.min(buffer.readableByteCount(), bytes.length - length);
+                buffer.read(bytes, length, toCopy);
+                length += toCopy;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        private boolean isFull() {
+            return length == bytes.length;
+        }
+
+        private String asString() {
+            if (length > maxBytes) {
+                return new String(bytes, 0, characterBoundary(maxBytes), StandardCharsets.UTF_8)
+                        + TRUNCATION_MARKER;
+            }
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Backs off to the start of the character cut at the limit, so the text ends on a whole character
+        private int characterBoundary(int limit) {
+            int end = limit;
+            while (end > 0 && isContinuationByte(bytes[end])) {
+                end--;
+            }
+            return end;
+        }
+
+        private static boolean isContinuationByte(byte b) {
+            return (b & 0xC0) == 0x80;
+        }
+    }
+
+}
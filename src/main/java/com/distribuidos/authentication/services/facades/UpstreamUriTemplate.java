@@ -0,0 +1,56 @@
+package com.distribuidos.authentication.services.facades;
+
+import org.springframework.web.util.UriUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Upstream path resolved once against its domain. Passing the expanded {@link URI} to the WebClient skips
+ * the template parsing it would otherwise run on every call; only the path variable is encoded per call.
+ */
+public final class UpstreamUriTemplate {
+
+    private static final String VARIABLE_START = "{";
+    private static final String VARIABLE_END = "}";
+
+    private final String prefix;
+    private final String suffix;
+    private final URI uri;
+
+    private UpstreamUriTemplate(String prefix, String suffix, URI uri) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.uri = uri;
+    }
+
+    /**
+     * @param path either a literal path or one with a single {@code {variable}}
+     */
+    public static UpstreamUriTemplate of(String domain, String path) {
+        String template = domain + path;
+        int start = template.indexOf(VARIABLE_START);
+        if (start < 0) {
+            return new UpstreamUriTemplate(template, "", URI.create(template));
+        }
+
+        int end = template.indexOf(VARIABLE_END, start);
+        if (end < 0 || template.indexOf(VARIABLE_START, end) >= 0) {
+            throw new IllegalArgumentException("Expected a single path variable in " + path);
+        }
+        return new UpstreamUriTemplate(template.substring(0, start), template.substring(end + 1), null);
+    }
+
+    public URI uri() {
+        if (uri == null) {
+            throw new IllegalStateException("Template " + prefix + "{}" + suffix + " needs a path variable");
+        }
+        return uri;
+    }
+
+    public URI expand(Object variable) {
+        return URI.create(prefix + UriUtils.encodePathSegment(String.valueOf(variable), StandardCharsets.UTF_8)
+                + suffix);
+    }
+
+}
@@ -1,18 +1,23 @@
 package com.distribuidos.authentication.services.facades.centralizer;
 
 import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.deadline.Deadlines;
 import com.distribuidos.authentication.exceptions.CentralizerValidateUserException;
 import com.distribuidos.authentication.exceptions.CitizenCreationException;
+import com.distribuidos.authentication.logging.LogRedaction;
+import com.distribuidos.authentication.services.facades.UpstreamResponses;
+import com.distribuidos.authentication.services.facades.UpstreamUriTemplate;
 import com.distribuidos.authentication.services.facades.centralizer.models.RegisterCitizenRequest;
-import lombok.RequiredArgsConstructor;
+import com.distribuidos.authentication.tuning.TuningRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import static com.distribuidos.authentication.config.WebClientConfig.CENTRALIZER_WEB_CLIENT;
 import static com.distribuidos.authentication.exceptions.ErrorCodes.CENTRALIZER_UPSTREAM_ERROR;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static reactor.core.publisher.Mono.error;
@@ -20,23 +25,37 @@ import static reactor.core.publisher.Mono.just;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class CentralizerFacade {
 
-    private static final String VALIDATE_USER_PATTERN = "/validateCitizen/%s";
+    private static final String VALIDATE_USER_PATTERN = "/validateCitizen/{documentId}";
     private static final String REGISTER_USER_PATH = "/registerCitizen";
 
     private final WebClient webClient;
     private final EnvironmentConfig environmentConfig;
+    private final TuningRegistry tuningRegistry;
+    private final Deadlines deadlines;
+    private final UpstreamUriTemplate validateUserUri;
+    private final UpstreamUriTemplate registerUserUri;
+
+    public CentralizerFacade(@Qualifier(CENTRALIZER_WEB_CLIENT) WebClient webClient,
+                             EnvironmentConfig environmentConfig,
+                             TuningRegistry tuningRegistry,
+                             Deadlines deadlines) {
+        this.webClient = webClient;
+        this.environmentConfig = environmentConfig;
+        this.tuningRegistry = tuningRegistry;
+        this.deadlines = deadlines;
+
+        String centralizerDomain = environmentConfig.getDomains().getCentralizerDomain();
+        this.validateUserUri = UpstreamUriTemplate.of(centralizerDomain, VALIDATE_USER_PATTERN);
+        this.registerUserUri = UpstreamUriTemplate.of(centralizerDomain, REGISTER_USER_PATH);
+    }
 
     public Mono<Boolean> validateUser(String userDocumentId) {
 
-        String resourceUri = environmentConfig.getDomains().getCentralizerDomain()
-                + String.format(VALIDATE_USER_PATTERN, userDocumentId);
-
         return webClient
                 .get()
-                .uri(resourceUri)
+                .uri(validateUserUri.expand(userDocumentId))
                 .exchangeToMono(userValidationResponse -> {
                     HttpStatus httpStatus = HttpStatus.valueOf(userValidationResponse.statusCode().value());
                     if (HttpStatus.OK.equals(httpStatus)) {
@@ -45,35 +64,34 @@ public class CentralizerFacade {
                     }
 
                     if (HttpStatus.NOT_FOUND.equals(httpStatus) || HttpStatus.NO_CONTENT.equals(httpStatus)) {
-                        log.info("User {} is not part of any external system", userDocumentId);
+                        log.info("User {} is not part of any external system",
+                                LogRedaction.documentId(userDocumentId));
                         return just(true);
                     }
 
-                    HttpHeaders responseHeaders = userValidationResponse.headers().asHttpHeaders();
-                    return userValidationResponse.bodyToMono(String.class)
+                    return UpstreamResponses
+                            .readErrorBody(userValidationResponse, environmentConfig.getMaxErrorBodySizeInBytes())
                             .flatMap(responseBody -> {
-                                log.error("{} - The centralizer service responded with "
-                                                + "an unexpected failure response for: {}"
-                                                + "\nStatus Code: {}\nResponse Headers: {}\nResponse Body: {}",
-                                        CENTRALIZER_UPSTREAM_ERROR, resourceUri, httpStatus, responseHeaders,
-                                        responseBody);
+                                log.error("{} - Unexpected centralizer service response operation=validateUser "
+                                                + "document={} status={} body={}",
+                                        CENTRALIZER_UPSTREAM_ERROR, LogRedaction.documentId(userDocumentId),
+                                        httpStatus.value(), responseBody);
                                 return error(new CentralizerValidateUserException(responseBody));
                             });
                 })
+                .transform(deadlines.attempt("centralizer.validateUser"))
                 .retryWhen(Retry
-                        .max(environmentConfig.getServiceRetry().getMaxAttempts())
+                        .max(tuningRegistry.current().getServiceRetryMaxAttempts())
                         .filter(CentralizerValidateUserException.class::isInstance)
-                        .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()));
+                        .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()))
+                .transform(deadlines.bound("centralizer.validateUser"));
     }
 
     public Mono<Boolean> registerCitizen(RegisterCitizenRequest request) {
 
-        String requestUri = environmentConfig.getDomains().getCentralizerDomain()
-                + REGISTER_USER_PATH;
-
         return webClient
                 .post()
-                .uri(requestUri)
+                .uri(registerUserUri.uri())
                 .header("accept", APPLICATION_JSON_VALUE)
                 .header("Content-Type", APPLICATION_JSON_VALUE)
                 .bodyValue(request)
@@ -83,21 +101,22 @@ public class CentralizerFacade {
                         return just(true);
                     }
 
-                    HttpHeaders responseHeaders = createCitizenResponse.headers().asHttpHeaders();
-                    return createCitizenResponse.bodyToMono(String.class)
+                    return UpstreamResponses
+                            .readErrorBody(createCitizenResponse, environmentConfig.getMaxErrorBodySizeInBytes())
                             .flatMap(responseBody -> {
-                                log.error("{} - The centralizer service responded with "
-                                                + "an unexpected failure response for: {}"
-                                                + "\nStatus Code: {}\nResponse Headers: {}\nResponse Body: {}",
-                                        CENTRALIZER_UPSTREAM_ERROR, requestUri, httpStatus, responseHeaders,
-                                        responseBody);
+                                log.error("{} - Unexpected centralizer service response operation=registerCitizen "
+                                                + "document={} status={} body={}",
+                                        CENTRALIZER_UPSTREAM_ERROR, LogRedaction.documentId(request.getId()),
+                                        httpStatus.value(), responseBody);
                                 return error(new CitizenCreationException(request.getId().toString()));
                             });
                 })
+                .transform(deadlines.attempt("centralizer.registerCitizen"))
                 .retryWhen(Retry
-                        .max(environmentConfig.getServiceRetry().getMaxAttempts())
+                        .max(tuningRegistry.current().getServiceRetryMaxAttempts())
                         .filter(CentralizerValidateUserException.class::isInstance)
-                        .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()));
+                        .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()))
+                .transform(deadlines.bound("centralizer.registerCitizen"));
     }
 
 
@@ -0,0 +1,167 @@
+package com.distribuidos.authentication.services.facades.users;
+
+import com.distribuidos.authentication.exceptions.UserUpstreamException;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.experimental.UtilityClass;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+
+/**
+ * Streaming decoder for the users service {@code ResponseBody<UserEntity>} envelope. Body chunks are fed
+ * to Jackson's non-blocking parser as they arrive, only the tokens of the {@code result} object are
+ * kept and the body is cancelled as soon as that object is complete. The result is bound by the given
+ * {@link ObjectReader}, so every {@link UserEntity} field is mapped the same way as in the bulk lookup.
+ */
+@UtilityClass
+class UserResponseReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String RESULT_FIELD = "result";
+
+    static Mono<UserEntity> readUser(ClientResponse response, int maxBytes, ObjectReader userReader) {
+        return Mono.defer(() -> {
+            EnvelopeParser envelope;
+            try {
+                envelope = new EnvelopeParser(maxBytes, userReader);
+            } catch (IOException e) {
+                return Mono.error(unreadable(e));
+            }
+
+            return response.body(BodyExtractors.toDataBuffers())
+                    .<UserEntity>handle((buffer, sink) -> {
+                        // Errors must go through the sink, one thrown here is lost once the body is cancelled
+                        if (!envelope.withinLimit(buffer)) {
+                            DataBufferUtils.release(buffer);
+                            sink.error(new UserUpstreamException("Users service response exceeded " + maxBytes
+                                    + " bytes"));
+                            return;
+                        }
+                        try {
+                            envelope.feed(buffer);
+                        } catch (IOException e) {
+                            sink.error(unreadable(e));
+                            return;
+                        }
+                        if (envelope.isDone()) {
+                            sink.complete();
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.defer(() -> {
+                        try {
+                            return Mono.justOrEmpty(envelope.finish());
+                        } catch (IOException e) {
+                            return Mono.error(unreadable(e));
+                        }
+                    }));
+        });
+    }
+
+    private static UserUpstreamException unreadable(IOException e) {
+        return new UserUpstreamException("Unreadable users service response: " + e.getMessage());
+    }
+
+    private static final class EnvelopeParser {
+
+        private final int maxBytes;
+        private final ObjectReader userReader;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        private int bytesRead;
+        private int depth;
+        private boolean resultField;
+        private TokenBuffer result;
+        private UserEntity user;
+        private boolean done;
+
+        private EnvelopeParser(int maxBytes, ObjectReader userReader) throws IOException {
+            this.maxBytes = maxBytes;
+            this.userReader = userReader;
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private boolean withinLimit(DataBuffer buffer) {
+            bytesRead += buffer.readableByteCount();
+            return bytesRead <= maxBytes;
+        }
+
+        private void feed(DataBuffer buffer) throws IOException {
+            byte[] bytes;
+            try {
+                bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+
+            feeder.feedInput(bytes, 0, bytes.length);
+            parseAvailable();
+        }
+
+        private boolean isDone() {
+            return done;
+        }
+
+        private UserEntity finish() throws IOException {
+            if (!done) {
+                feeder.endOfInput();
+                parseAvailable();
+            }
+            parser.close();
+            return user;
+        }
+
+        private void parseAvailable() throws IOException {
+            JsonToken token;
+            while (!done && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token);
+            }
+        }
+
+        private void onToken(JsonToken token) throws IOException {
+            if (result != null) {
+                result.copyCurrentEvent(parser);
+                depth += depthChange(token);
+                if (depth == 1) {
+                    user = userReader.readValue(result.asParser());
+                    result = null;
+                    done = true;
+                }
+                return;
+            }
+
+            depth += depthChange(token);
+            if (depth == 0) {
+                // End of the envelope, or a scalar body
+                done = true;
+            } else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+                resultField = RESULT_FIELD.equals(parser.currentName());
+            } else if (depth == 2 && token == JsonToken.START_OBJECT && resultField) {
+                result = new TokenBuffer(parser);
+                result.copyCurrentEvent(parser);
+            }
+        }
+
+        private static int depthChange(JsonToken token) {
+            if (token.isStructStart()) {
+                return 1;
+            }
+            return token.isStructEnd() ? -1 : 0;
+        }
+    }
+
+}
@@ -0,0 +1,310 @@
+package com.distribuidos.authentication.services.facades.users;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.deadline.Deadline;
+import com.distribuidos.authentication.deadline.Deadlines;
+import com.distribuidos.authentication.exceptions.UserNotFoundException;
+import com.distribuidos.authentication.exceptions.UserUpstreamException;
+import com.distribuidos.authentication.models.ResponseBody;
+import com.distribuidos.authentication.services.facades.UpstreamResponses;
+import com.distribuidos.authentication.services.facades.UpstreamUriTemplate;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.distribuidos.authentication.tuning.Tuning;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.distribuidos.authentication.config.WebClientConfig.USERS_WEB_CLIENT;
+import static com.distribuidos.authentication.exceptions.ErrorCodes.USERS_BATCH_UPSTREAM_ERROR;
+
+/**
+ * Coalesces concurrent user lookups into a single {@code POST /users/batch} call. A batch is flushed
+ * when the window elapses or when it reaches the max size, whichever comes first. Lookups for the same
+ * document within a window share one result. If the users service does not expose the bulk endpoint
+ * the loader switches permanently to the single lookup it is given.
+ * <p>
+ * The bulk call runs with the Reactor context of the lookup of its batch with the most time left, a
+ * single lookup fallback with the context of the lookup it serves, so the request deadline and tracing
+ * reach the upstream call. Lookups with less time left are cut by their own deadline, never the batch.
+ */
+@Slf4j
+@Component
+public class UsersBatchLoader {
+
+    private static final ParameterizedTypeReference<ResponseBody<List<UserEntity>>> RESPONSE_TYPE_USERS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final String FIND_USERS_BATCH_PATH = "/users/batch";
+
+    private final WebClient webClient;
+    private final EnvironmentConfig environmentConfig;
+    private final TuningRegistry tuningRegistry;
+    private final Deadlines deadlines;
+    private final UpstreamUriTemplate findUsersBatchUri;
+
+    private final DistributionSummary batchSize;
+    private final Timer batchWindow;
+    private final Counter fallbackLookups;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean bulkUnsupported = new AtomicBoolean();
+
+    private Map<String, PendingLookup> pending = new LinkedHashMap<>();
+    private long windowStartNanos;
+    private Disposable scheduledFlush;
+
+    public UsersBatchLoader(@Qualifier(USERS_WEB_CLIENT) WebClient webClient,
+                            EnvironmentConfig environmentConfig,
+                            TuningRegistry tuningRegistry,
+                            Deadlines deadlines,
+                            MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.environmentConfig = environmentConfig;
+        this.tuningRegistry = tuningRegistry;
+        this.deadlines = deadlines;
+        this.findUsersBatchUri = UpstreamUriTemplate.of(environmentConfig.getDomains().getUsersDomain(),
+                FIND_USERS_BATCH_PATH);
+        this.batchSize = DistributionSummary.builder("auth.users.lookup.batch.size")
+                .description("Document IDs per bulk users lookup")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchWindow = Timer.builder("auth.users.lookup.batch.window")
+                .description("Time between the first lookup of a batch and its flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fallbackLookups = Counter.builder("auth.users.lookup.batch.fallback")
+                .description("Lookups served by single GETs because the bulk endpoint is unavailable")
+                .register(meterRegistry);
+    }
+
+    public Mono<UserEntity> load(String documentId, Function<String, Mono<UserEntity>> singleLookup) {
+        if (bulkUnsupported.get()) {
+            fallbackLookups.increment();
+            return singleLookup.apply(documentId);
+        }
+
+        return Mono.deferContextual(context -> {
+            Tuning tuning = tuningRegistry.current();
+            Map<String, PendingLookup> batch = null;
+            PendingLookup lookup;
+
+            synchronized (lock) {
+                String key = normalize(documentId);
+                lookup = pending.get(key);
+                if (lookup == null) {
+                    lookup = new PendingLookup(documentId, singleLookup, context);
+                    pending.put(key, lookup);
+                    if (pending.size() == 1) {
+                        windowStartNanos = System.nanoTime();
+                    }
+                }
+
+                if (pending.size() >= tuning.getUserLookupBatchMaxSize()) {
+                    batch = drain();
+                } else if (pending.size() == 1 && scheduledFlush == null) {
+                    scheduledFlush = Schedulers.parallel()
+                            .schedule(this::flushWindow, tuning.getUserLookupBatchWindowInMs(), TimeUnit.MILLISECONDS);
+                }
+            }
+
+            if (batch != null) {
+                flush(batch);
+            }
+            return lookup.sink.asMono();
+        });
+    }
+
+    private void flushWindow() {
+        Map<String, PendingLookup> batch;
+        synchronized (lock) {
+            scheduledFlush = null;
+            batch = drain();
+        }
+        flush(batch);
+    }
+
+    // Must be called while holding the lock
+    private Map<String, PendingLookup> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        if (!pending.isEmpty()) {
+            batchWindow.record(System.nanoTime() - windowStartNanos, TimeUnit.NANOSECONDS);
+        }
+
+        Map<String, PendingLookup> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void flush(Map<String, PendingLookup> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSize.record(batch.size());
+
+        if (bulkUnsupported.get()) {
+            fallback(batch);
+            return;
+        }
+
+        List<String> documentIds = new ArrayList<>(batch.size());
+        batch.values().forEach(lookup -> documentIds.add(lookup.documentId));
+
+        findUsers(documentIds).contextWrite(longestDeadline(batch)).subscribe(
+                users -> batch.forEach((key, lookup) -> {
+                    UserEntity user = users.get(key);
+                    if (user != null) {
+                        lookup.sink.tryEmitValue(user);
+                    } else {
+                        lookup.sink.tryEmitError(UserNotFoundException.forDocument(lookup.documentId));
+                    }
+                }),
+                error -> {
+                    if (error instanceof BulkUnsupportedException) {
+                        log.warn("Users service does not support bulk lookups, falling back to single lookups");
+                        bulkUnsupported.set(true);
+                        fallback(batch);
+                    } else {
+                        batch.values().forEach(lookup -> lookup.sink.tryEmitError(error));
+                    }
+                });
+    }
+
+    private void fallback(Map<String, PendingLookup> batch) {
+        batch.values().forEach(lookup -> {
+            fallbackLookups.increment();
+            lookup.singleLookup.apply(lookup.documentId).contextWrite(lookup.context).subscribe(
+                    lookup.sink::tryEmitValue,
+                    lookup.sink::tryEmitError,
+                    lookup.sink::tryEmitEmpty);
+        });
+    }
+
+    // A lookup without a deadline is unbounded and wins, ties keep the first lookup of the batch
+    private static ContextView longestDeadline(Map<String, PendingLookup> batch) {
+        ContextView longest = null;
+        Duration longestRemaining = null;
+        for (PendingLookup lookup : batch.values()) {
+            Optional<Deadline> deadline = lookup.context.getOrEmpty(Deadline.class);
+            if (deadline.isEmpty()) {
+                return lookup.context;
+            }
+            Duration remaining = deadline.get().remaining();
+            if (longestRemaining == null || remaining.compareTo(longestRemaining) > 0) {
+                longest = lookup.context;
+                longestRemaining = remaining;
+            }
+        }
+        return longest;
+    }
+
+    private Mono<Map<String, UserEntity>> findUsers(List<String> documentIds) {
+
+        return webClient
+                .post()
+                .uri(findUsersBatchUri.uri())
+                .bodyValue(documentIds)
+                .exchangeToMono(usersResponse -> {
+                    HttpStatus httpStatus = HttpStatus.valueOf(usersResponse.statusCode().value());
+                    if (HttpStatus.OK.equals(httpStatus)) {
+                        return usersResponse.bodyToMono(RESPONSE_TYPE_USERS)
+                                .map(ResponseBody::getResult)
+                                .defaultIfEmpty(Collections.emptyList())
+                                .map(UsersBatchLoader::byDocumentId);
+                    }
+
+                    if (HttpStatus.NOT_FOUND.equals(httpStatus)
+                            || HttpStatus.METHOD_NOT_ALLOWED.equals(httpStatus)
+                            || HttpStatus.NOT_IMPLEMENTED.equals(httpStatus)) {
+                        return usersResponse.releaseBody()
+                                .then(Mono.error(new BulkUnsupportedException()));
+                    }
+
+                    return UpstreamResponses
+                            .readErrorBody(usersResponse, environmentConfig.getMaxErrorBodySizeInBytes())
+                            .flatMap(responseBody -> {
+                                log.error("{} - Unexpected users service response operation=findUsers "
+                                                + "documents={} status={} body={}",
+                                        USERS_BATCH_UPSTREAM_ERROR, documentIds.size(),
+                                        httpStatus.value(), responseBody);
+                                return Mono.error(new UserUpstreamException(responseBody));
+                            });
+                })
+                .transform(deadlines.attempt("users.findUsers"))
+                .retryWhen(Retry
+                        .max(tuningRegistry.current().getServiceRetryMaxAttempts())
+                        .filter(UserUpstreamException.class::isInstance)
+                        .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()));
+    }
+
+    private static Map<String, UserEntity> byDocumentId(List<UserEntity> users) {
+        Map<String, UserEntity> usersByDocumentId = new HashMap<>(users.size() * 2);
+        for (UserEntity user : users) {
+            if (user != null && user.getDocumentId() != null) {
+                usersByDocumentId.put(user.getDocumentId().toString(), user);
+            }
+        }
+        return usersByDocumentId;
+    }
+
+    // Document IDs are numeric upstream, so "0123" and "123" are the same user
+    private static String normalize(String documentId) {
+        try {
+            return Long.valueOf(documentId.trim()).toString();
+        } catch (NumberFormatException e) {
+            return documentId;
+        }
+    }
+
+    private static final class PendingLookup {
+
+        private final String documentId;
+        private final Function<String, Mono<UserEntity>> singleLookup;
+        private final ContextView context;
+        private final Sinks.One<UserEntity> sink = Sinks.one();
+
+        private PendingLookup(String documentId, Function<String, Mono<UserEntity>> singleLookup,
+                              ContextView context) {
+            this.documentId = documentId;
+            this.singleLookup = singleLookup;
+            this.context = context;
+        }
+    }
+
+    private static final class BulkUnsupportedException extends RuntimeException {
+
+        private BulkUnsupportedException() {
+            super("Users service does not expose " + FIND_USERS_BATCH_PATH, null, false, false);
+        }
+    }
+
+}
@@ -1,20 +1,26 @@
 package com.distribuidos.authentication.services.facades.users;
 
 import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.deadline.Deadlines;
+import com.distribuidos.authentication.exceptions.UserAlreadyExistsException;
 import com.distribuidos.authentication.exceptions.UserNotFoundException;
 import com.distribuidos.authentication.exceptions.UserUpstreamException;
-import com.distribuidos.authentication.models.ResponseBody;
+import com.distribuidos.authentication.logging.LogRedaction;
+import com.distribuidos.authentication.services.facades.UpstreamResponses;
+import com.distribuidos.authentication.services.facades.UpstreamUriTemplate;
 import com.distribuidos.authentication.services.facades.users.models.UserEntity;
-import lombok.RequiredArgsConstructor;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import static com.distribuidos.authentication.config.WebClientConfig.USERS_WEB_CLIENT;
 import static com.distribuidos.authentication.exceptions.ErrorCodes.USER_BY_DOCUMENT_UPSTREAM_ERROR;
 import static com.distribuidos.authentication.exceptions.ErrorCodes.USER_CREATION_UPSTREAM_ERROR;
 import static reactor.core.publisher.Mono.error;
@@ -22,27 +28,43 @@ import static reactor.core.publisher.Mono.just;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class UsersFacade {
 
-    private static final ParameterizedTypeReference<ResponseBody<UserEntity>> RESPONSE_TYPE_USER =
-            new ParameterizedTypeReference<>() {
-            };
-
-    private static final String FIND_USER_BY_DOCUMENT_PATH = "/users/%s";
+    private static final String FIND_USER_BY_DOCUMENT_PATH = "/users/{documentId}";
     private static final String SAVE_USER_PATH = "/users";
 
     private final WebClient webClient;
     private final EnvironmentConfig environmentConfig;
+    private final TuningRegistry tuningRegistry;
+    private final Deadlines deadlines;
+    private final UsersBatchLoader usersBatchLoader;
+    private final UpstreamUriTemplate findUserByDocumentUri;
+    private final UpstreamUriTemplate saveUserUri;
+    private final ObjectReader userReader;
+
+    public UsersFacade(@Qualifier(USERS_WEB_CLIENT) WebClient webClient,
+                       EnvironmentConfig environmentConfig,
+                       TuningRegistry tuningRegistry,
+                       Deadlines deadlines,
+                       UsersBatchLoader usersBatchLoader,
+                       ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.environmentConfig = environmentConfig;
+        this.tuningRegistry = tuningRegistry;
+        this.deadlines = deadlines;
+        this.usersBatchLoader = usersBatchLoader;
+
+        String usersDomain = environmentConfig.getDomains().getUsersDomain();
+        this.findUserByDocumentUri = UpstreamUriTemplate.of(usersDomain, FIND_USER_BY_DOCUMENT_PATH);
+        this.saveUserUri = UpstreamUriTemplate.of(usersDomain, SAVE_USER_PATH);
+        this.userReader = objectMapper.readerFor(UserEntity.class);
+    }
 
     public Mono<Boolean> createUser(UserEntity userRequest) {
 
-        String resourceUri = environmentConfig.getDomains().getUsersDomain()
-                + SAVE_USER_PATH;
-
         return webClient
                 .post()
-                .uri(resourceUri)
+                .uri(saveUserUri.uri())
                 .bodyValue(userRequest)
                 .exchangeToMono(userResponse -> {
                     HttpStatus httpStatus = HttpStatus.valueOf(userResponse.statusCode().value());
@@ -50,57 +72,70 @@ public class UsersFacade {
                         return just(true);
                     }
 
-                    HttpHeaders responseHeaders = userResponse.headers().asHttpHeaders();
-                    return userResponse.bodyToMono(String.class)
+                    // A registration the existence check missed, e.g. skipped on a stale registered documents filter
+                    if (HttpStatus.CONFLICT.equals(httpStatus)) {
+                        return userResponse.releaseBody()
+                                .then(Mono.<Boolean>error(
+                                        new UserAlreadyExistsException(userRequest.getDocumentId().toString())));
+                    }
+
+                    return UpstreamResponses
+                            .readErrorBody(userResponse, environmentConfig.getMaxErrorBodySizeInBytes())
                             .flatMap(responseBody -> {
-                                log.error("{} - The users service responded with "
-                                                + "an unexpected failure response for: {}"
-                                                + "\nStatus Code: {}\nResponse Headers: {}\nResponse Body: {}",
-                                        USER_CREATION_UPSTREAM_ERROR, resourceUri, httpStatus, responseHeaders,
-                                        responseBody);
+                                log.error("{} - Unexpected users service response operation=createUser "
+                                                + "document={} status={} body={}",
+                                        USER_CREATION_UPSTREAM_ERROR,
+                                        LogRedaction.documentId(userRequest.getDocumentId()),
+                                        httpStatus.value(), responseBody);
                                 return error(new UserUpstreamException(responseBody));
                             });
                 })
+                .transform(deadlines.attempt("users.createUser"))
                 .retryWhen(Retry
-                        .max(environmentConfig.getServiceRetry().getMaxAttempts())
+                        .max(tuningRegistry.current().getServiceRetryMaxAttempts())
                         .filter(UserUpstreamException.class::isInstance)
-                        .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()));
+                        .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()))
+                .transform(deadlines.bound("users.createUser"));
 
     }
 
     public Mono<UserEntity> findUserByDocumentId(String documentId) {
+        Mono<UserEntity> lookup = environmentConfig.getUserLookupBatch().getEnabled()
+                ? usersBatchLoader.load(documentId, this::fetchUserByDocumentId)
+                : fetchUserByDocumentId(documentId);
+
+        return lookup.transform(deadlines.bound("users.findUserByDocumentId"));
+    }
 
-        String resourceUri = environmentConfig.getDomains().getUsersDomain()
-                + String.format(FIND_USER_BY_DOCUMENT_PATH, documentId);
+    private Mono<UserEntity> fetchUserByDocumentId(String documentId) {
 
         return webClient
                 .get()
-                .uri(resourceUri)
+                .uri(findUserByDocumentUri.expand(documentId))
                 .exchangeToMono(userResponse -> {
                     HttpStatus httpStatus = HttpStatus.valueOf(userResponse.statusCode().value());
                     if (HttpStatus.OK.equals(httpStatus)) {
-                        return userResponse.bodyToMono(RESPONSE_TYPE_USER)
-                                .map(ResponseBody::getResult);
+                        return UserResponseReader.readUser(userResponse,
+                                1024 * environmentConfig.getMaxUserResponseSizeInKb(), userReader);
                     }
 
                     if (HttpStatus.NOT_FOUND.equals(httpStatus)) {
-                        return Mono.error(new UserNotFoundException("User with document " + documentId
-                                + " was not found."));
+                        return Mono.error(UserNotFoundException.forDocument(documentId));
                     }
 
-                    HttpHeaders responseHeaders = userResponse.headers().asHttpHeaders();
-                    return userResponse.bodyToMono(String.class)
+                    return UpstreamResponses
+                            .readErrorBody(userResponse, environmentConfig.getMaxErrorBodySizeInBytes())
                             .flatMap(responseBody -> {
-                                log.error("{} - The users service responded with "
-                                                + "an unexpected failure response for: {}"
-                                                + "\nStatus Code: {}\nResponse Headers: {}\nResponse Body: {}",
-                                        USER_BY_DOCUMENT_UPSTREAM_ERROR, resourceUri, httpStatus, responseHeaders,
-                                        responseBody);
+                                log.error("{} - Unexpected users service response operation=findUserByDocumentId "
+                                                + "document={} status={} body={}",
+                                        USER_BY_DOCUMENT_UPSTREAM_ERROR, LogRedaction.documentId(documentId),
+                                        httpStatus.value(), responseBody);
                                 return error(new UserUpstreamException(responseBody));
                             });
                 })
+                .transform(deadlines.attempt("users.findUserByDocumentId"))
                 .retryWhen(Retry
-                        .max(environmentConfig.getServiceRetry().getMaxAttempts())
+                        .max(tuningRegistry.current().getServiceRetryMaxAttempts())
                         .filter(UserUpstreamException.class::isInstance)
                         .onRetryExhaustedThrow((ignore1, ignore2) -> ignore2.failure()));
     }
@@ -0,0 +1,231 @@
+package com.distribuidos.authentication.services.idempotency;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.IdempotencyCapacityException;
+import com.distribuidos.authentication.exceptions.IdempotencyKeyConflictException;
+import com.distribuidos.authentication.services.sharedstate.NearCache;
+import com.distribuidos.authentication.services.sharedstate.SharedStateStore;
+import com.distribuidos.authentication.tuning.Tuning;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicted store of in-progress and completed operations keyed by the client
+ * {@code Idempotency-Key}. The first request for a key runs the operation detached from its own
+ * subscription, so the work completes even if the client gives up; retries with the same key attach to
+ * the in-flight result or replay the completed one. Failed operations are forgotten so they can be
+ * retried. A key reused with a different request body is a conflict.
+ * <p>
+ * Only completed entries are evicted to make room, an operation in flight is never forgotten while a
+ * retry could still run it again. When every entry is in flight new keys are rejected with
+ * {@link IdempotencyCapacityException}.
+ * <p>
+ * Completed results are also recorded in the {@link SharedStateStore}, so a retry routed to another
+ * replica replays them too, read through a {@link NearCache} so repeated retries stay in-process.
+ * Operations still in flight are only known to the replica running them.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final String SHARED_CACHE_NAME = "idempotency";
+    private static final String FINGERPRINT_FIELD = "fingerprint";
+    private static final String RESULT_FIELD = "result";
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    private final TuningRegistry tuningRegistry;
+    private final NearCache sharedResults;
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec fingerprintKey;
+    private final Counter replayed;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(TuningRegistry tuningRegistry,
+                            SharedStateStore sharedStateStore,
+                            EnvironmentConfig environmentConfig,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        EnvironmentConfig.SharedState sharedState = environmentConfig.getSharedState();
+        this.tuningRegistry = tuningRegistry;
+        this.sharedResults = new NearCache(sharedStateStore, SHARED_CACHE_NAME,
+                Duration.ofSeconds(sharedState.getNearCacheTtlInSeconds()), sharedState.getNearCacheMaxEntries());
+        this.objectMapper = objectMapper;
+        this.fingerprintKey = new SecretKeySpec(environmentConfig.getIdempotency().getFingerprintSecret()
+                .getBytes(StandardCharsets.UTF_8), FINGERPRINT_ALGORITHM);
+        this.replayed = Counter.builder("auth.idempotency.replayed")
+                .description("Requests answered from an in-flight or completed idempotent operation")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Object request, Class<T> resultType,
+                               Supplier<Mono<T>> operation) {
+        return Mono.deferContextual(context -> {
+            String fingerprint;
+            try {
+                fingerprint = fingerprint(request);
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+
+            Entry entry;
+            boolean owner = false;
+
+            Tuning tuning = tuningRegistry.current();
+            synchronized (lock) {
+                long now = System.nanoTime();
+                evict(now, tuning.getIdempotencyMaxEntries());
+
+                entry = entries.get(key);
+                if (entry == null) {
+                    if (entries.size() >= tuning.getIdempotencyMaxEntries()) {
+                        return Mono.error(new IdempotencyCapacityException());
+                    }
+                    entry = new Entry(fingerprint,
+                            now + TimeUnit.SECONDS.toNanos(tuning.getIdempotencyTtlInSeconds()));
+                    entries.put(key, entry);
+                    owner = true;
+                }
+            }
+
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return Mono.error(new IdempotencyKeyConflictException(key));
+            }
+
+            if (owner) {
+                Entry ownedEntry = entry;
+                replayShared(key, fingerprint, resultType)
+                        .switchIfEmpty(Mono.defer(operation)
+                                .flatMap(result -> recordShared(key, fingerprint, result).thenReturn(result)))
+                        .contextWrite(context)
+                        .subscribe(
+                                result -> {
+                                    ownedEntry.completed = true;
+                                    ownedEntry.result.tryEmitValue(result);
+                                },
+                                error -> {
+                                    remove(key, ownedEntry);
+                                    ownedEntry.result.tryEmitError(error);
+                                },
+                                () -> {
+                                    ownedEntry.completed = true;
+                                    ownedEntry.result.tryEmitEmpty();
+                                });
+            } else {
+                replayed.increment();
+            }
+
+            return (Mono<T>) entry.result.asMono();
+        });
+    }
+
+    // Keyed digest of the whole request, so reusing a key with any other field changed is detected. The
+    // request carries the plaintext password, a plain hash kept in memory and in the shared store could be
+    // brute forced back to it
+    private String fingerprint(Object request) throws JsonProcessingException {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            return HexFormat.of().formatHex(mac.doFinal(objectMapper.writeValueAsBytes(request)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private <T> Mono<T> replayShared(String key, String fingerprint, Class<T> resultType) {
+        return sharedResults.get(key)
+                .onErrorResume(e -> {
+                    log.warn("Unable to read idempotency key from shared state: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .<T>handle((record, sink) -> {
+                    try {
+                        JsonNode completed = objectMapper.readTree(record);
+                        if (!fingerprint.equals(completed.path(FINGERPRINT_FIELD).asText())) {
+                            sink.error(new IdempotencyKeyConflictException(key));
+                            return;
+                        }
+                        replayed.increment();
+                        sink.next(objectMapper.treeToValue(completed.get(RESULT_FIELD), resultType));
+                    } catch (JsonProcessingException | IllegalArgumentException e) {
+                        log.warn("Ignoring unreadable idempotency record: {}", e.getMessage());
+                    }
+                });
+    }
+
+    private Mono<Void> recordShared(String key, String fingerprint, Object result) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                        .put(FINGERPRINT_FIELD, fingerprint)
+                        .set(RESULT_FIELD, objectMapper.valueToTree(result))))
+                .flatMap(record -> sharedResults.put(key, record,
+                        Duration.ofSeconds(tuningRegistry.current().getIdempotencyTtlInSeconds())))
+                .onErrorResume(e -> {
+                    log.warn("Unable to record idempotency key in shared state: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        sharedResults.dispose();
+    }
+
+    private void remove(String key, Entry entry) {
+        synchronized (lock) {
+            entries.remove(key, entry);
+        }
+    }
+
+    // Must be called while holding the lock. Insertion order is expiry order until the TTL is retuned, an entry
+    // queued behind a longer lived one then waits for it, still bounded by maxEntries. Entries in flight are
+    // skipped, expired or not
+    private void evict(long now, int maxEntries) {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext()) {
+            Entry entry = eldest.next();
+            boolean expired = entry.expiresAtNanos - now <= 0;
+            if (!expired && entries.size() < maxEntries) {
+                return;
+            }
+            if (entry.completed) {
+                eldest.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final long expiresAtNanos;
+        private final Sinks.One<Object> result = Sinks.one();
+        private volatile boolean completed;
+
+        private Entry(String fingerprint, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+}
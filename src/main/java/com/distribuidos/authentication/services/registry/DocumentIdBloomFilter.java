@@ -0,0 +1,132 @@
+package com.distribuidos.authentication.services.registry;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of document IDs. Numeric IDs are hashed from their value, so "0123" and
+ * "123" are the same key, as they are for the users service.
+ */
+final class DocumentIdBloomFilter {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int numHashes;
+    private final AtomicLong insertions;
+
+    private DocumentIdBloomFilter(AtomicLongArray words, int numHashes, long insertions) {
+        this.words = words;
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.numHashes = numHashes;
+        this.insertions = new AtomicLong(insertions);
+    }
+
+    static DocumentIdBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(expectedInsertions, 1);
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int numHashes = Math.max(1, (int) Math.round((double) bits / expected * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        return new DocumentIdBloomFilter(new AtomicLongArray(wordCount), numHashes, 0);
+    }
+
+    void put(String documentId) {
+        long hash1 = hash(documentId);
+        long hash2 = mix(hash1);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(hash1 + i * hash2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String documentId) {
+        long hash1 = hash(documentId);
+        long hash2 = mix(hash1);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(hash1 + i * hash2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive probability for the number of keys inserted so far.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-numHashes * (double) insertions.get() / bitCount), numHashes);
+    }
+
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    void writeTo(DataOutputStream output) throws IOException {
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(numHashes);
+        output.writeLong(insertions.get());
+        output.writeInt(words.length());
+        for (int i = 0; i < words.length(); i++) {
+            output.writeLong(words.get(i));
+        }
+    }
+
+    static DocumentIdBloomFilter readFrom(DataInputStream input) throws IOException {
+        if (input.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported Bloom filter format");
+        }
+        int numHashes = input.readInt();
+        long insertions = input.readLong();
+        AtomicLongArray words = new AtomicLongArray(input.readInt());
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, input.readLong());
+        }
+        return new DocumentIdBloomFilter(words, numHashes, insertions);
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitCount;
+    }
+
+    private static long hash(String documentId) {
+        String key = documentId.trim();
+        try {
+            return mix(Long.parseLong(key));
+        } catch (NumberFormatException e) {
+            // FNV-1a for non numeric IDs
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.distribuidos.authentication.services.registry;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import lombok.experimental.UtilityClass;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Streaming decoder for the users service {@code ResponseBody<List<Long>>} document IDs snapshot. Body
+ * chunks are fed to Jackson's non-blocking parser as they arrive and the IDs of the {@code result} array
+ * are collected as primitive longs, so neither the JSON body nor boxed IDs are ever held in memory and
+ * the codec in-memory limit does not apply.
+ */
+@UtilityClass
+class DocumentIdsReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String RESULT_FIELD = "result";
+
+    static Mono<long[]> readDocumentIds(ClientResponse response) {
+        return Mono.defer(() -> {
+            EnvelopeParser envelope;
+            try {
+                envelope = new EnvelopeParser();
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+
+            return response.body(BodyExtractors.toDataBuffers())
+                    .doOnNext(buffer -> {
+                        try {
+                            envelope.feed(buffer);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromCallable(envelope::finish));
+        });
+    }
+
+    private static final class EnvelopeParser {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        private int depth;
+        private boolean resultField;
+        private boolean inResult;
+        private long[] documentIds = new long[1024];
+        private int count;
+
+        private EnvelopeParser() throws IOException {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private void feed(DataBuffer buffer) throws IOException {
+            byte[] bytes;
+            try {
+                bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+
+            feeder.feedInput(bytes, 0, bytes.length);
+            parseAvailable();
+        }
+
+        private long[] finish() throws IOException {
+            feeder.endOfInput();
+            parseAvailable();
+            parser.close();
+            return Arrays.copyOf(documentIds, count);
+        }
+
+        private void parseAvailable() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token);
+            }
+        }
+
+        private void onToken(JsonToken token) throws IOException {
+            if (token.isStructStart()) {
+                depth++;
+                inResult = depth == 2 && token == JsonToken.START_ARRAY && resultField;
+            } else if (token.isStructEnd()) {
+                depth--;
+                inResult = false;
+            } else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+                resultField = RESULT_FIELD.equals(parser.currentName());
+            } else if (inResult && token == JsonToken.VALUE_NUMBER_INT) {
+                add(parser.getLongValue());
+            }
+        }
+
+        private void add(long documentId) {
+            if (count == documentIds.length) {
+                documentIds = Arrays.copyOf(documentIds, count * 2);
+            }
+            documentIds[count++] = documentId;
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.distribuidos.authentication.services.registry;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.distribuidos.authentication.config.WebClientConfig.USERS_WEB_CLIENT;
+
+/**
+ * Local Bloom filter of every registered document ID, used to skip the remote existence check during
+ * registration. It is rebuilt periodically from a users service snapshot, updated on every local
+ * registration and persisted to disk so a restarted pod is usable right away.
+ * <p>
+ * The filter only answers while its last snapshot is younger than {@code max-staleness-in-seconds}:
+ * registrations served by other replicas reach it with the next snapshot only. Within that window a
+ * duplicate is caught by the users service rejecting the creation.
+ */
+@Slf4j
+@Component
+public class RegisteredDocumentsFilter {
+
+    private static final String DOCUMENT_IDS_SNAPSHOT_PATH = "/users/document-ids";
+
+    private final WebClient webClient;
+    private final EnvironmentConfig environmentConfig;
+    private final TuningRegistry tuningRegistry;
+    private final Counter skippedLookups;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Guards the snapshot swap against concurrent registrations, see recordRegistered
+    private final Object lock = new Object();
+    // Non null while a rebuild is in progress, collects registrations the new snapshot may have missed
+    private Set<String> registeredDuringRebuild;
+    private Disposable rebuilds;
+
+    public RegisteredDocumentsFilter(@Qualifier(USERS_WEB_CLIENT) WebClient webClient,
+                                     EnvironmentConfig environmentConfig,
+                                     TuningRegistry tuningRegistry,
+                                     MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.environmentConfig = environmentConfig;
+        this.tuningRegistry = tuningRegistry;
+        this.skippedLookups = Counter.builder("auth.registry.bloom.skipped.lookups")
+                .description("Registration existence checks answered locally")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.registry.bloom.false.positive.rate", current,
+                        snapshot -> snapshot.get() == null ? 0 : snapshot.get().filter.expectedFalsePositiveRate())
+                .description("Estimated false-positive rate of the registered documents filter")
+                .register(meterRegistry);
+        Gauge.builder("auth.registry.bloom.size", current,
+                        snapshot -> snapshot.get() == null ? 0 : snapshot.get().filter.sizeInBytes())
+                .description("Memory used by the registered documents filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.registry.bloom.insertions", current,
+                        snapshot -> snapshot.get() == null ? 0 : snapshot.get().filter.insertions())
+                .description("Document IDs inserted in the registered documents filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True only when the document is certainly not registered. False means "maybe registered" or "filter
+     * not usable right now", and the caller has to ask the users service.
+     */
+    public boolean isDefinitelyNotRegistered(String documentId) {
+        Snapshot snapshot = current.get();
+        if (!config().getEnabled() || snapshot == null || isStale(snapshot)) {
+            return false;
+        }
+
+        boolean notRegistered = !snapshot.filter.mightContain(documentId);
+        if (notRegistered) {
+            skippedLookups.increment();
+        }
+        return notRegistered;
+    }
+
+    public void recordRegistered(String documentId) {
+        // A registration lands either in the pending set drained by the swap or in the published snapshot
+        synchronized (lock) {
+            Snapshot snapshot = current.get();
+            if (snapshot != null) {
+                snapshot.filter.put(documentId);
+            }
+            if (registeredDuringRebuild != null) {
+                registeredDuringRebuild.add(documentId);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config().getEnabled()) {
+            return;
+        }
+
+        Duration interval = Duration.ofSeconds(config().getRebuildIntervalInSeconds());
+        rebuilds = Mono.fromRunnable(this::load)
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenMany(Flux.interval(Duration.ZERO, interval)
+                        .onBackpressureDrop()
+                        .concatMap(tick -> rebuild()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuilds != null) {
+            rebuilds.dispose();
+        }
+    }
+
+    private Mono<Void> rebuild() {
+        synchronized (lock) {
+            registeredDuringRebuild = new HashSet<>();
+        }
+
+        return fetchDocumentIds()
+                // Filling the filter is CPU bound on large snapshots, keep it off the event loop
+                .publishOn(Schedulers.boundedElastic())
+                .map(documentIds -> {
+                    DocumentIdBloomFilter filter = DocumentIdBloomFilter.create(
+                            Math.max(config().getExpectedInsertions(), documentIds.length),
+                            config().getFalsePositiveRate());
+                    for (long documentId : documentIds) {
+                        filter.put(Long.toString(documentId));
+                    }
+                    return new Snapshot(filter, System.currentTimeMillis());
+                })
+                .doOnNext(snapshot -> {
+                    synchronized (lock) {
+                        current.set(snapshot);
+                        registeredDuringRebuild.forEach(snapshot.filter::put);
+                        registeredDuringRebuild = null;
+                    }
+                    log.info("Registered documents filter rebuilt with {} IDs, estimated fpp {}",
+                            snapshot.filter.insertions(), snapshot.filter.expectedFalsePositiveRate());
+                })
+                .doOnNext(this::persist)
+                .doOnError(e -> log.warn("Unable to rebuild the registered documents filter: {}", e.getMessage()))
+                .doFinally(signal -> {
+                    synchronized (lock) {
+                        registeredDuringRebuild = null;
+                    }
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    // Streamed rather than decoded as a list, the snapshot outgrows the codec in-memory limit
+    private Mono<long[]> fetchDocumentIds() {
+
+        String resourceUri = environmentConfig.getDomains().getUsersDomain()
+                + DOCUMENT_IDS_SNAPSHOT_PATH;
+
+        return webClient
+                .get()
+                .uri(resourceUri)
+                .exchangeToMono(response -> response.statusCode().is2xxSuccessful()
+                        ? DocumentIdsReader.readDocumentIds(response)
+                        : response.createException().flatMap(Mono::<long[]>error));
+    }
+
+    private void load() {
+        Path path = Path.of(config().getPersistencePath());
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            long takenAt = input.readLong();
+            Snapshot snapshot = new Snapshot(DocumentIdBloomFilter.readFrom(input), takenAt);
+            current.compareAndSet(null, snapshot);
+            log.info("Registered documents filter restored from {} ({} IDs)", path, snapshot.filter.insertions());
+        } catch (IOException e) {
+            log.warn("Unable to restore the registered documents filter from {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void persist(Snapshot snapshot) {
+        Path path = Path.of(config().getPersistencePath());
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeLong(snapshot.takenAt);
+                snapshot.filter.writeTo(output);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to persist the registered documents filter to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private boolean isStale(Snapshot snapshot) {
+        long maxStalenessInSeconds = tuningRegistry.current().getRegisteredDocumentsMaxStalenessInSeconds();
+        return System.currentTimeMillis() - snapshot.takenAt > maxStalenessInSeconds * 1000;
+    }
+
+    private EnvironmentConfig.RegisteredDocumentsFilter config() {
+        return environmentConfig.getRegisteredDocumentsFilter();
+    }
+
+    private static final class Snapshot {
+
+        private final DocumentIdBloomFilter filter;
+        private final long takenAt;
+
+        private Snapshot(DocumentIdBloomFilter filter, long takenAt) {
+            this.filter = filter;
+            this.takenAt = takenAt;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.distribuidos.authentication.services.sharedstate;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single replica implementation, for local runs and deployments with one pod. Expired entries are
+ * dropped when read and swept every {@value #SWEEP_EVERY_WRITES} writes.
+ */
+public class InMemorySharedStateStore implements SharedStateStore {
+
+    private static final int SWEEP_EVERY_WRITES = 1024;
+    // Publishers on several threads race for the sink, the loser spins briefly instead of dropping
+    private static final Sinks.EmitFailureHandler CONCURRENT_PUBLISH =
+            Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Sinks.Many<String>> channels = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    @Override
+    public Mono<String> get(String key) {
+        return Mono.fromSupplier(() -> read(key));
+    }
+
+    @Override
+    public Mono<Map<String, String>> getAll(Collection<String> keys) {
+        return Mono.fromSupplier(() -> {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String key : keys) {
+                String value = read(key);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, String value, Duration ttl) {
+        return Mono.fromRunnable(() -> write(key, new Entry(value, expiresAt(ttl))));
+    }
+
+    @Override
+    public Mono<Void> putAll(Map<String, String> values, Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            long expiresAt = expiresAt(ttl);
+            values.forEach((key, value) -> write(key, new Entry(value, expiresAt)));
+        });
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return Mono.fromRunnable(() -> entries.remove(key));
+    }
+
+    @Override
+    public Mono<Void> publish(String channel, String message) {
+        return Mono.fromRunnable(() -> channel(channel).emitNext(message, CONCURRENT_PUBLISH));
+    }
+
+    @Override
+    public Flux<String> subscribe(String channel) {
+        return channel(channel).asFlux();
+    }
+
+    private String read(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpiredAt(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void write(String key, Entry entry) {
+        entries.put(key, entry);
+        sweepPeriodically();
+    }
+
+    private void sweepPeriodically() {
+        if (writes.incrementAndGet() % SWEEP_EVERY_WRITES == 0) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.isExpiredAt(now));
+        }
+    }
+
+    private Sinks.Many<String> channel(String channel) {
+        return channels.computeIfAbsent(channel, name -> Sinks.many().multicast().directBestEffort());
+    }
+
+    private static long expiresAt(Duration ttl) {
+        return System.nanoTime() + ttl.toNanos();
+    }
+
+    private static final class Entry {
+
+        private final String value;
+        private final long expiresAtNanos;
+
+        private Entry(String value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpiredAt(long now) {
+            return expiresAtNanos - now <= 0;
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.distribuidos.authentication.services.sharedstate;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process copy of a slice of the shared state, so hot reads skip the round trip to the backend.
+ * Writes and evictions go through the shared store and are announced on the {@code name} channel, every
+ * replica drops its local copy of the announced key. Local entries also expire after {@code localTtl},
+ * which bounds staleness if an invalidation message is lost.
+ * <p>
+ * A value read from the backend is only cached when no invalidation arrived while it was in flight, else
+ * a read racing with a write could cache the previous value until the local TTL expires.
+ */
+@Slf4j
+public class NearCache implements Disposable {
+
+    private static final String INVALIDATION_CHANNEL_PREFIX = "invalidate:";
+
+    private final SharedStateStore sharedStateStore;
+    private final String name;
+    private final long localTtlNanos;
+    private final int maxLocalEntries;
+
+    private final Map<String, LocalEntry> local = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, of any key, so reads in flight across one do not cache their value
+    private final AtomicLong invalidationVersion = new AtomicLong();
+    private final Disposable invalidations;
+
+    public NearCache(SharedStateStore sharedStateStore, String name, Duration localTtl, int maxLocalEntries) {
+        this.sharedStateStore = sharedStateStore;
+        this.name = name;
+        this.localTtlNanos = localTtl.toNanos();
+        this.maxLocalEntries = maxLocalEntries;
+        this.invalidations = sharedStateStore.subscribe(channel())
+                .subscribe(this::invalidateLocally,
+                        e -> log.warn("Near cache {} stopped receiving invalidations: {}", name, e.getMessage()));
+    }
+
+    public Mono<String> get(String key) {
+        LocalEntry entry = local.get(key);
+        if (entry != null && !entry.isExpiredAt(System.nanoTime())) {
+            return Mono.just(entry.value);
+        }
+
+        return Mono.defer(() -> {
+            long version = invalidationVersion.get();
+            return sharedStateStore.get(namespaced(key))
+                    .doOnNext(value -> cacheLocally(key, value, version));
+        });
+    }
+
+    public Mono<Map<String, String>> getAll(Collection<String> keys) {
+        long now = System.nanoTime();
+        Map<String, String> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : keys) {
+            LocalEntry entry = local.get(key);
+            if (entry != null && !entry.isExpiredAt(now)) {
+                found.put(key, entry.value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(found);
+        }
+
+        long version = invalidationVersion.get();
+        return sharedStateStore.getAll(missing.stream().map(this::namespaced).toList())
+                .map(shared -> {
+                    for (String key : missing) {
+                        String value = shared.get(namespaced(key));
+                        if (value != null) {
+                            cacheLocally(key, value, version);
+                            found.put(key, value);
+                        }
+                    }
+                    return found;
+                });
+    }
+
+    // Not cached locally, our own announcement would race with it; the next get reads the value back
+    public Mono<Void> put(String key, String value, Duration ttl) {
+        return sharedStateStore.put(namespaced(key), value, ttl)
+                .then(sharedStateStore.publish(channel(), key));
+    }
+
+    public Mono<Void> evict(String key) {
+        return Mono.defer(() -> {
+            invalidateLocally(key);
+            return sharedStateStore.delete(namespaced(key))
+                    .then(sharedStateStore.publish(channel(), key));
+        });
+    }
+
+    @Override
+    public void dispose() {
+        invalidations.dispose();
+        local.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return invalidations.isDisposed();
+    }
+
+    private void invalidateLocally(String key) {
+        invalidationVersion.incrementAndGet();
+        local.remove(key);
+    }
+
+    private void cacheLocally(String key, String value, long readVersion) {
+        if (invalidationVersion.get() != readVersion) {
+            return;
+        }
+        if (local.size() >= maxLocalEntries) {
+            long now = System.nanoTime();
+            local.values().removeIf(entry -> entry.isExpiredAt(now));
+            if (local.size() >= maxLocalEntries) {
+                local.clear();
+            }
+        }
+        local.put(key, new LocalEntry(value, System.nanoTime() + localTtlNanos));
+    }
+
+    private String namespaced(String key) {
+        return name + ":" + key;
+    }
+
+    private String channel() {
+        return INVALIDATION_CHANNEL_PREFIX + name;
+    }
+
+    private static final class LocalEntry {
+
+        private final String value;
+        private final long expiresAtNanos;
+
+        private LocalEntry(String value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpiredAt(long now) {
+            return expiresAtNanos - now <= 0;
+        }
+    }
+
+}
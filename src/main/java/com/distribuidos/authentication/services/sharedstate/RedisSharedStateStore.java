@@ -0,0 +1,82 @@
+package com.distribuidos.authentication.services.sharedstate;
+
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis backed implementation shared by every replica. Batched reads are a single MGET; batched writes
+ * are issued concurrently on the shared Lettuce connection, which pipelines them instead of waiting for
+ * each reply. Keys and channels are namespaced with {@code keyPrefix}.
+ */
+public class RedisSharedStateStore implements SharedStateStore {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+
+    public RedisSharedStateStore(ReactiveStringRedisTemplate redisTemplate, String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Mono<String> get(String key) {
+        return redisTemplate.opsForValue().get(keyPrefix + key);
+    }
+
+    @Override
+    public Mono<Map<String, String>> getAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        List<String> orderedKeys = List.copyOf(keys);
+        return redisTemplate.opsForValue()
+                .multiGet(orderedKeys.stream().map(key -> keyPrefix + key).toList())
+                .map(values -> {
+                    Map<String, String> found = new LinkedHashMap<>();
+                    for (int i = 0; i < orderedKeys.size(); i++) {
+                        if (values.get(i) != null) {
+                            found.put(orderedKeys.get(i), values.get(i));
+                        }
+                    }
+                    return found;
+                });
+    }
+
+    @Override
+    public Mono<Void> put(String key, String value, Duration ttl) {
+        return redisTemplate.opsForValue().set(keyPrefix + key, value, ttl).then();
+    }
+
+    @Override
+    public Mono<Void> putAll(Map<String, String> entries, Duration ttl) {
+        return Flux.fromIterable(entries.entrySet())
+                .flatMap(entry -> redisTemplate.opsForValue().set(keyPrefix + entry.getKey(), entry.getValue(), ttl))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return redisTemplate.delete(keyPrefix + key).then();
+    }
+
+    @Override
+    public Mono<Void> publish(String channel, String message) {
+        return redisTemplate.convertAndSend(keyPrefix + channel, message).then();
+    }
+
+    @Override
+    public Flux<String> subscribe(String channel) {
+        return redisTemplate.listenToChannel(keyPrefix + channel)
+                .map(ReactiveSubscription.Message::getMessage);
+    }
+
+}
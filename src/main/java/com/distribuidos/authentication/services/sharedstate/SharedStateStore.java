@@ -0,0 +1,40 @@
+package com.distribuidos.authentication.services.sharedstate;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Key-value state visible to every replica of the service, with expiring entries and a publish/subscribe
+ * channel to tell the other replicas to drop what they cached locally. Values are opaque strings, callers
+ * own the serialization.
+ */
+public interface SharedStateStore {
+
+    Mono<String> get(String key);
+
+    /**
+     * Reads several keys in one round trip. Missing keys are absent from the result.
+     */
+    Mono<Map<String, String>> getAll(Collection<String> keys);
+
+    Mono<Void> put(String key, String value, Duration ttl);
+
+    /**
+     * Writes several entries sharing the same TTL, pipelined instead of one round trip per entry.
+     */
+    Mono<Void> putAll(Map<String, String> entries, Duration ttl);
+
+    Mono<Void> delete(String key);
+
+    Mono<Void> publish(String channel, String message);
+
+    /**
+     * Messages published on the channel by any replica, this one included, from subscription onward.
+     */
+    Flux<String> subscribe(String channel);
+
+}
@@ -0,0 +1,177 @@
+package com.distribuidos.authentication.startup;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.config.UpstreamPools;
+import com.distribuidos.authentication.tuning.Tuning;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.distribuidos.authentication.config.WebClientConfig.CENTRALIZER_POOL;
+import static com.distribuidos.authentication.config.WebClientConfig.CENTRALIZER_WEB_CLIENT;
+import static com.distribuidos.authentication.config.WebClientConfig.USERS_POOL;
+import static com.distribuidos.authentication.config.WebClientConfig.USERS_WEB_CLIENT;
+
+/**
+ * Opens {@code min-connections} to every upstream before the readiness state switches to accepting
+ * traffic, then tops the pools up again whenever idle eviction or upstream closes shrink them, so
+ * requests do not pay for DNS resolution and TLS handshakes.
+ * <p>
+ * Connections are opened with concurrent HEAD requests to the upstream domain, the response status is
+ * irrelevant: an HTTP/1.1 pool needs one connection per in-flight request, so holding
+ * {@code min-connections} requests at once fills it.
+ */
+@Slf4j
+@Component
+public class ConnectionPreWarmer implements ApplicationRunner {
+
+    private final EnvironmentConfig environmentConfig;
+    private final TuningRegistry tuningRegistry;
+    private final UpstreamPools upstreamPools;
+    private final List<Upstream> upstreams;
+
+    private Disposable checks;
+
+    public ConnectionPreWarmer(@Qualifier(USERS_WEB_CLIENT) WebClient usersWebClient,
+                               @Qualifier(CENTRALIZER_WEB_CLIENT) WebClient centralizerWebClient,
+                               EnvironmentConfig environmentConfig,
+                               TuningRegistry tuningRegistry,
+                               UpstreamPools upstreamPools,
+                               MeterRegistry meterRegistry) {
+        this.environmentConfig = environmentConfig;
+        this.tuningRegistry = tuningRegistry;
+        this.upstreamPools = upstreamPools;
+
+        EnvironmentConfig.Domains domains = environmentConfig.getDomains();
+        this.upstreams = List.of(
+                new Upstream(USERS_POOL, usersWebClient, URI.create(domains.getUsersDomain()),
+                        Tuning::getUsers, meterRegistry),
+                new Upstream(CENTRALIZER_POOL, centralizerWebClient, URI.create(domains.getCentralizerDomain()),
+                        Tuning::getCentralizer, meterRegistry));
+
+        upstreams.forEach(upstream -> {
+            Gauge.builder("auth.upstream.connections.allocated", upstreamPools,
+                            pools -> pools.allocatedConnections(upstream.pool))
+                    .description("Connections currently open to the upstream")
+                    .tag("upstream", upstream.pool)
+                    .register(meterRegistry);
+            Gauge.builder("auth.upstream.connections.idle", upstreamPools,
+                            pools -> pools.idleConnections(upstream.pool))
+                    .description("Open connections to the upstream waiting for a request")
+                    .tag("upstream", upstream.pool)
+                    .register(meterRegistry);
+            Gauge.builder("auth.upstream.connections.target", tuningRegistry,
+                            registry -> upstream.minConnections(registry.current()))
+                    .description("Connections the pre-warmer keeps open to the upstream")
+                    .tag("upstream", upstream.pool)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        EnvironmentConfig.ConnectionPreWarm preWarm = environmentConfig.getConnectionPreWarm();
+        if (!preWarm.getEnabled()) {
+            return;
+        }
+
+        Duration interval = Duration.ofSeconds(preWarm.getCheckIntervalInSeconds());
+
+        // An unreachable upstream delays readiness by one check interval at most
+        long start = System.nanoTime();
+        topUp().timeout(interval, Mono.empty()).block();
+        upstreams.forEach(upstream -> log.info("Upstream {} pre-warmed with {} connections in {} ms",
+                upstream.pool, upstreamPools.allocatedConnections(upstream.pool),
+                (System.nanoTime() - start) / 1_000_000));
+
+        // A retuned min-connections is applied right away rather than on the next check
+        checks = Flux.merge(Flux.interval(interval), tuningRegistry.changes())
+                .onBackpressureDrop()
+                .concatMap(tick -> topUp())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (checks != null) {
+            checks.dispose();
+        }
+    }
+
+    private Mono<Void> topUp() {
+        return Flux.fromIterable(upstreams)
+                .flatMap(this::topUp)
+                .then();
+    }
+
+    private Mono<Void> topUp(Upstream upstream) {
+        int minConnections = upstream.minConnections(tuningRegistry.current());
+        if (upstreamPools.allocatedConnections(upstream.pool) >= minConnections) {
+            return Mono.empty();
+        }
+
+        // Idle connections get reused by the first requests, the rest force new ones to be opened
+        return Flux.range(0, minConnections)
+                .flatMap(attempt -> upstream.webClient
+                        .head()
+                        .uri(upstream.domain)
+                        .exchangeToMono(ClientResponse::releaseBody)
+                        .doOnSuccess(ignored -> upstream.opened.increment())
+                        .doOnError(e -> {
+                            upstream.failed.increment();
+                            log.debug("Unable to pre-warm a connection to {}: {}", upstream.pool, e.getMessage());
+                        })
+                        .onErrorResume(e -> Mono.empty()), minConnections)
+                .then();
+    }
+
+    private static final class Upstream {
+
+        private final String pool;
+        private final WebClient webClient;
+        private final URI domain;
+        private final Function<Tuning, Tuning.Upstream> settings;
+        private final Counter opened;
+        private final Counter failed;
+
+        private Upstream(String pool, WebClient webClient, URI domain, Function<Tuning, Tuning.Upstream> settings,
+                         MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.webClient = webClient;
+            this.domain = domain;
+            this.settings = settings;
+            this.opened = preWarmCounter(meterRegistry, pool, "success");
+            this.failed = preWarmCounter(meterRegistry, pool, "failure");
+        }
+
+        private int minConnections(Tuning tuning) {
+            return settings.apply(tuning).getMinConnections();
+        }
+
+        private static Counter preWarmCounter(MeterRegistry meterRegistry, String pool, String outcome) {
+            return Counter.builder("auth.upstream.prewarm.requests")
+                    .description("Pre-warm requests sent to the upstream")
+                    .tag("upstream", pool)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+}
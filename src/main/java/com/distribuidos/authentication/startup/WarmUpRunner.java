@@ -0,0 +1,85 @@
+package com.distribuidos.authentication.startup;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.models.LoginRequest;
+import com.distribuidos.authentication.models.ResponseBody;
+import com.distribuidos.authentication.security.JwtUtil;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exercises the login and register hot path once the context is refreshed. Runners complete before
+ * the readiness state switches to accepting traffic, so the first real request does not pay for
+ * lazy bean creation, class loading or cold JIT code.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final TypeReference<ResponseBody<UserEntity>> RESPONSE_TYPE_USER = new TypeReference<>() {
+    };
+
+    private static final String WARM_UP_DOCUMENT = "0";
+    private static final String WARM_UP_PASSWORD = "warm-up";
+
+    private final EnvironmentConfig environmentConfig;
+    private final JwtUtil jwtUtil;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        EnvironmentConfig.WarmUp warmUp = environmentConfig.getWarmUp();
+        if (!warmUp.getEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < warmUp.getIterations(); i++) {
+            warmUpTokens();
+            warmUpPasswordEncoder();
+            warmUpCodecs();
+        }
+
+        log.info("Auth hot path warmed up in {} ms ({} iterations)",
+                (System.nanoTime() - start) / 1_000_000, warmUp.getIterations());
+    }
+
+    private void warmUpTokens() {
+        String token = jwtUtil.generateToken(WARM_UP_DOCUMENT);
+        if (jwtUtil.validateToken(token)) {
+            jwtUtil.getUsernameFromToken(token);
+        }
+    }
+
+    private void warmUpPasswordEncoder() {
+        String encoded = passwordEncoder.encode(WARM_UP_PASSWORD);
+        passwordEncoder.matches(WARM_UP_PASSWORD, encoded);
+    }
+
+    private void warmUpCodecs() throws Exception {
+        UserEntity user = UserEntity.builder()
+                .documentId(Long.valueOf(WARM_UP_DOCUMENT))
+                .fullName(WARM_UP_PASSWORD)
+                .email(WARM_UP_PASSWORD)
+                .build();
+
+        String userJson = objectMapper.writeValueAsString(ResponseBody.builder().result(user).build());
+        objectMapper.readValue(userJson, RESPONSE_TYPE_USER);
+
+        String loginJson = objectMapper.writeValueAsString(LoginRequest.builder()
+                .document(WARM_UP_DOCUMENT)
+                .password(WARM_UP_PASSWORD)
+                .build());
+        objectMapper.readValue(loginJson, LoginRequest.class);
+    }
+
+}
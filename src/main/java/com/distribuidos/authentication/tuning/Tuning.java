@@ -0,0 +1,209 @@
+package com.distribuidos.authentication.tuning;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.InvalidTuningException;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the settings that can change without a restart. Components read
+ * {@link TuningRegistry#current()} once per operation, so an operation never mixes two snapshots.
+ * <p>
+ * Settings are addressed by flat keys, e.g. {@code users.max-connections}, both in the tuning file and in
+ * the actuator endpoint.
+ */
+@Value
+@Builder(toBuilder = true)
+public class Tuning {
+
+    private static final String USERS = "users.";
+    private static final String CENTRALIZER = "centralizer.";
+
+    int serviceRetryMaxAttempts;
+    Upstream users;
+    Upstream centralizer;
+    long idempotencyTtlInSeconds;
+    int idempotencyMaxEntries;
+    long userLookupBatchWindowInMs;
+    int userLookupBatchMaxSize;
+    long registeredDocumentsMaxStalenessInSeconds;
+
+    @Value
+    @Builder(toBuilder = true)
+    public static class Upstream {
+
+        long responseTimeoutInMs;
+        long pendingAcquireTimeoutInMs;
+        int maxConnections;
+        int maxConcurrentStreams;
+        int minConnections;
+
+        private static Upstream from(EnvironmentConfig.UpstreamClient client) {
+            return Upstream.builder()
+                    .responseTimeoutInMs(client.getResponseTimeoutInMs())
+                    .pendingAcquireTimeoutInMs(client.getPendingAcquireTimeoutInMs())
+                    .maxConnections(client.getMaxConnections())
+                    .maxConcurrentStreams(client.getMaxConcurrentStreams())
+                    .minConnections(client.getMinConnections())
+                    .build();
+        }
+
+        /**
+         * True when the connection pool has to be rebuilt to apply the other settings.
+         */
+        public boolean hasDifferentPoolThan(Upstream other) {
+            return maxConnections != other.maxConnections || maxConcurrentStreams != other.maxConcurrentStreams
+                    || pendingAcquireTimeoutInMs != other.pendingAcquireTimeoutInMs;
+        }
+
+        private Upstream with(String setting, String value) {
+            return switch (setting) {
+                case "response-timeout-in-ms" -> toBuilder().responseTimeoutInMs(parseLong(setting, value)).build();
+                case "pending-acquire-timeout-in-ms" ->
+                        toBuilder().pendingAcquireTimeoutInMs(parseLong(setting, value)).build();
+                case "max-connections" -> toBuilder().maxConnections(parseInt(setting, value)).build();
+                case "max-concurrent-streams" -> toBuilder().maxConcurrentStreams(parseInt(setting, value)).build();
+                case "min-connections" -> toBuilder().minConnections(parseInt(setting, value)).build();
+                default -> throw new InvalidTuningException("Unknown tuning setting: " + setting);
+            };
+        }
+
+        private void validate(String prefix, List<String> violations) {
+            if (responseTimeoutInMs <= 0) {
+                violations.add(prefix + "response-timeout-in-ms must be positive");
+            }
+            if (pendingAcquireTimeoutInMs <= 0) {
+                violations.add(prefix + "pending-acquire-timeout-in-ms must be positive");
+            }
+            if (maxConnections <= 0) {
+                violations.add(prefix + "max-connections must be positive");
+            }
+            if (maxConcurrentStreams <= 0) {
+                violations.add(prefix + "max-concurrent-streams must be positive");
+            }
+            if (minConnections < 0 || minConnections > maxConnections) {
+                violations.add(prefix + "min-connections must be between 0 and max-connections");
+            }
+        }
+
+        private void putSettings(String prefix, Map<String, Object> settings) {
+            settings.put(prefix + "response-timeout-in-ms", responseTimeoutInMs);
+            settings.put(prefix + "pending-acquire-timeout-in-ms", pendingAcquireTimeoutInMs);
+            settings.put(prefix + "max-connections", maxConnections);
+            settings.put(prefix + "max-concurrent-streams", maxConcurrentStreams);
+            settings.put(prefix + "min-connections", minConnections);
+        }
+    }
+
+    public static Tuning from(EnvironmentConfig config) {
+        return Tuning.builder()
+                .serviceRetryMaxAttempts(config.getServiceRetry().getMaxAttempts())
+                .users(Upstream.from(config.getDomains().getUsersClient()))
+                .centralizer(Upstream.from(config.getDomains().getCentralizerClient()))
+                .idempotencyTtlInSeconds(config.getIdempotency().getTtlInSeconds())
+                .idempotencyMaxEntries(config.getIdempotency().getMaxEntries())
+                .userLookupBatchWindowInMs(config.getUserLookupBatch().getWindowInMs())
+                .userLookupBatchMaxSize(config.getUserLookupBatch().getMaxSize())
+                .registeredDocumentsMaxStalenessInSeconds(
+                        config.getRegisteredDocumentsFilter().getMaxStalenessInSeconds())
+                .build();
+    }
+
+    /**
+     * Copy with the given settings applied and validated as a whole.
+     *
+     * @throws InvalidTuningException on an unknown key, an unparsable value or an invalid combination
+     */
+    public Tuning with(Map<String, String> settings) {
+        Tuning updated = this;
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            updated = updated.with(setting.getKey().trim(), setting.getValue().trim());
+        }
+        updated.validate();
+        return updated;
+    }
+
+    public Map<String, Object> asSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("service-retry.max-attempts", serviceRetryMaxAttempts);
+        users.putSettings(USERS, settings);
+        centralizer.putSettings(CENTRALIZER, settings);
+        settings.put("idempotency.ttl-in-seconds", idempotencyTtlInSeconds);
+        settings.put("idempotency.max-entries", idempotencyMaxEntries);
+        settings.put("user-lookup-batch.window-in-ms", userLookupBatchWindowInMs);
+        settings.put("user-lookup-batch.max-size", userLookupBatchMaxSize);
+        settings.put("registered-documents-filter.max-staleness-in-seconds", registeredDocumentsMaxStalenessInSeconds);
+        return settings;
+    }
+
+    private Tuning with(String setting, String value) {
+        if (setting.startsWith(USERS)) {
+            return toBuilder().users(users.with(setting.substring(USERS.length()), value)).build();
+        }
+        if (setting.startsWith(CENTRALIZER)) {
+            return toBuilder().centralizer(centralizer.with(setting.substring(CENTRALIZER.length()), value)).build();
+        }
+
+        return switch (setting) {
+            case "service-retry.max-attempts" -> toBuilder().serviceRetryMaxAttempts(parseInt(setting, value)).build();
+            case "idempotency.ttl-in-seconds" -> toBuilder().idempotencyTtlInSeconds(parseLong(setting, value)).build();
+            case "idempotency.max-entries" -> toBuilder().idempotencyMaxEntries(parseInt(setting, value)).build();
+            case "user-lookup-batch.window-in-ms" ->
+                    toBuilder().userLookupBatchWindowInMs(parseLong(setting, value)).build();
+            case "user-lookup-batch.max-size" -> toBuilder().userLookupBatchMaxSize(parseInt(setting, value)).build();
+            case "registered-documents-filter.max-staleness-in-seconds" ->
+                    toBuilder().registeredDocumentsMaxStalenessInSeconds(parseLong(setting, value)).build();
+            default -> throw new InvalidTuningException("Unknown tuning setting: " + setting);
+        };
+    }
+
+    private void validate() {
+        List<String> violations = new ArrayList<>();
+        if (serviceRetryMaxAttempts < 0) {
+            violations.add("service-retry.max-attempts must not be negative");
+        }
+        users.validate(USERS, violations);
+        centralizer.validate(CENTRALIZER, violations);
+        if (idempotencyTtlInSeconds <= 0) {
+            violations.add("idempotency.ttl-in-seconds must be positive");
+        }
+        if (idempotencyMaxEntries <= 0) {
+            violations.add("idempotency.max-entries must be positive");
+        }
+        if (userLookupBatchWindowInMs <= 0) {
+            violations.add("user-lookup-batch.window-in-ms must be positive");
+        }
+        if (userLookupBatchMaxSize <= 0) {
+            violations.add("user-lookup-batch.max-size must be positive");
+        }
+        if (registeredDocumentsMaxStalenessInSeconds <= 0) {
+            violations.add("registered-documents-filter.max-staleness-in-seconds must be positive");
+        }
+
+        if (!violations.isEmpty()) {
+            throw new InvalidTuningException("Invalid tuning: " + String.join(", ", violations));
+        }
+    }
+
+    private static int parseInt(String setting, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidTuningException("Invalid value for " + setting + ": " + value);
+        }
+    }
+
+    private static long parseLong(String setting, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidTuningException("Invalid value for " + setting + ": " + value);
+        }
+    }
+
+}
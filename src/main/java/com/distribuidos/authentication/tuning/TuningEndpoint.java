@@ -0,0 +1,38 @@
+package com.distribuidos.authentication.tuning;
+
+import com.distribuidos.authentication.exceptions.InvalidTuningException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/tuning} lists the current settings, {@code POST /actuator/tuning} with
+ * {@code {"key": "users.max-connections", "value": "80"}} changes one of them.
+ */
+@Component
+@Endpoint(id = "tuning")
+@RequiredArgsConstructor
+public class TuningEndpoint {
+
+    private final TuningRegistry tuningRegistry;
+
+    @ReadOperation
+    public Map<String, Object> tuning() {
+        return tuningRegistry.current().asSettings();
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(String key, String value) {
+        try {
+            return tuningRegistry.update(Map.of(key, value), "actuator").asSettings();
+        } catch (InvalidTuningException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+}
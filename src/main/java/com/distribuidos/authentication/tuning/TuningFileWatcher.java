@@ -0,0 +1,95 @@
+package com.distribuidos.authentication.tuning;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.InvalidTuningException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Applies the properties file at {@code environment.tuning-file.path} whenever its modification time
+ * changes. The file is polled rather than watched: a mounted ConfigMap is replaced through a symlink swap
+ * that file watches miss. Keys removed from the file keep their last applied value.
+ */
+@Slf4j
+@Component
+public class TuningFileWatcher {
+
+    private final EnvironmentConfig environmentConfig;
+    private final TuningRegistry tuningRegistry;
+
+    private FileTime lastApplied;
+    private Disposable polls;
+
+    public TuningFileWatcher(EnvironmentConfig environmentConfig, TuningRegistry tuningRegistry) {
+        this.environmentConfig = environmentConfig;
+        this.tuningRegistry = tuningRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        EnvironmentConfig.TuningFile tuningFile = environmentConfig.getTuningFile();
+        if (tuningFile.getPath() == null || tuningFile.getPath().isBlank()) {
+            return;
+        }
+
+        Path path = Path.of(tuningFile.getPath());
+        polls = Flux.interval(Duration.ZERO, Duration.ofSeconds(tuningFile.getPollIntervalInSeconds()))
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(() -> poll(path))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (polls != null) {
+            polls.dispose();
+        }
+    }
+
+    private void poll(Path path) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(lastApplied)) {
+                return;
+            }
+            // Recorded before applying, a rejected file is reported once rather than on every poll
+            lastApplied = modified;
+            tuningRegistry.update(read(path), path.toString());
+        } catch (NoSuchFileException e) {
+            lastApplied = null;
+        } catch (IOException | InvalidTuningException e) {
+            log.warn("Tuning file {} not applied: {}", path, e.getMessage());
+        }
+    }
+
+    private static Map<String, String> read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+
+        Map<String, String> settings = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach(key -> settings.put(key, properties.getProperty(key)));
+        return settings;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.distribuidos.authentication.tuning;
+
+import com.distribuidos.authentication.exceptions.InvalidTuningException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link Tuning}. Updates are validated as a whole and swapped in with a single
+ * reference write: operations already running keep the snapshot they read, new ones see the new one.
+ */
+@Slf4j
+public class TuningRegistry {
+
+    private final AtomicReference<Tuning> current;
+    private final Sinks.Many<Change> changes = Sinks.many().multicast().directBestEffort();
+
+    public TuningRegistry(Tuning initial) {
+        this.current = new AtomicReference<>(initial);
+    }
+
+    public Tuning current() {
+        return current.get();
+    }
+
+    /**
+     * Previous and new snapshot of every applied update, for components that have to rebuild resources
+     * rather than read the settings per operation.
+     */
+    public Flux<Change> changes() {
+        return changes.asFlux();
+    }
+
+    /**
+     * @throws InvalidTuningException when the settings are rejected, the current tuning is then left as is
+     */
+    public synchronized Tuning update(Map<String, String> settings, String source) {
+        Tuning previous = current.get();
+        Tuning updated = previous.with(settings);
+        if (updated.equals(previous)) {
+            return previous;
+        }
+
+        current.set(updated);
+        log.info("Tuning updated from {}: {}", source, settings);
+        changes.tryEmitNext(new Change(previous, updated));
+        return updated;
+    }
+
+    @Value
+    public static class Change {
+
+        Tuning previous;
+        Tuning current;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.distribuidos.authentication.admission;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdmissionControllerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionController admissionController;
+
+    @BeforeEach
+    public void setUp() {
+        EnvironmentConfig.Admission admission = new EnvironmentConfig.Admission();
+        admission.setEnabled(true);
+        admission.setMaxConcurrency(2);
+        admission.setConcurrencyLimits(Map.of(AdmissionClass.REGISTER, 1));
+        admission.setMaxQueueSize(1);
+        admission.setQueueTargetInMs(1000L);
+        admission.setQueueIntervalInMs(1000L);
+        admission.setMaxQueueTimeInMs(200L);
+        admission.setRetryAfterInSeconds(1L);
+
+        meterRegistry = new SimpleMeterRegistry();
+        admissionController = new AdmissionController(admission, meterRegistry);
+    }
+
+    @Test
+    public void testAdmit_QueuedExchangeAdmittedOnRelease() {
+        StepVerifier.create(admissionController.admit(AdmissionClass.REGISTER))
+                .verifyComplete();
+
+        StepVerifier.create(admissionController.admit(AdmissionClass.REGISTER))
+                .then(() -> admissionController.release(AdmissionClass.REGISTER))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testAdmit_RejectsWhenQueueIsFull() {
+        StepVerifier.create(admissionController.admit(AdmissionClass.LOGIN)).verifyComplete();
+        StepVerifier.create(admissionController.admit(AdmissionClass.LOGIN)).verifyComplete();
+
+        admissionController.admit(AdmissionClass.LOGIN).subscribe(ignored -> { }, ignored -> { });
+
+        StepVerifier.create(admissionController.admit(AdmissionClass.LOGIN))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+
+        assertEquals(1, rejected(AdmissionClass.LOGIN, AdmissionController.REASON_QUEUE_FULL));
+    }
+
+    @Test
+    public void testAdmissionController_RegistersRejectionCountersUpFront() {
+        for (AdmissionClass admissionClass : AdmissionClass.values()) {
+            assertEquals(0, rejected(admissionClass, AdmissionController.REASON_QUEUE_FULL));
+            assertEquals(0, rejected(admissionClass, AdmissionController.REASON_QUEUE_TIMEOUT));
+            assertEquals(0, rejected(admissionClass, AdmissionController.REASON_QUEUE_DELAY));
+        }
+    }
+
+    @Test
+    public void testAdmit_RejectsAfterMaxQueueTime() {
+        StepVerifier.create(admissionController.admit(AdmissionClass.REGISTER)).verifyComplete();
+
+        StepVerifier.create(admissionController.admit(AdmissionClass.REGISTER))
+                .expectError(AdmissionRejectedException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1, rejected(AdmissionClass.REGISTER, AdmissionController.REASON_QUEUE_TIMEOUT));
+    }
+
+    private double rejected(AdmissionClass admissionClass, String reason) {
+        return meterRegistry.get("auth.admission.rejected")
+                .tag("class", admissionClass.name().toLowerCase())
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.distribuidos.authentication.config;
+
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionPoolMetrics;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UpstreamPoolsTest {
+
+    private static final SocketAddress ADDRESS = InetSocketAddress.createUnresolved("users", 443);
+
+    private final UpstreamPools upstreamPools = new UpstreamPools();
+
+    @Test
+    public void testAllocatedConnections_IgnoresPoolsOfARetiredProvider() {
+        String retired = upstreamPools.nextProviderName("users");
+        upstreamPools.registerMetrics(retired, "1", ADDRESS, metrics(4, 3));
+        assertEquals(4, upstreamPools.allocatedConnections("users"));
+
+        // Rebuilt on retuning, the retired provider keeps its connections until it is disposed
+        String current = upstreamPools.nextProviderName("users");
+        assertEquals(0, upstreamPools.allocatedConnections("users"));
+
+        upstreamPools.registerMetrics(current, "2", ADDRESS, metrics(1, 0));
+        assertEquals(1, upstreamPools.allocatedConnections("users"));
+        assertEquals(0, upstreamPools.idleConnections("users"));
+
+        upstreamPools.deRegisterMetrics(retired, "1", ADDRESS);
+        assertEquals(1, upstreamPools.allocatedConnections("users"));
+        assertEquals(0, upstreamPools.allocatedConnections("centralizer"));
+    }
+
+    private static ConnectionPoolMetrics metrics(int allocated, int idle) {
+        ConnectionPoolMetrics metrics = mock(ConnectionPoolMetrics.class);
+        when(metrics.allocatedSize()).thenReturn(allocated);
+        when(metrics.idleSize()).thenReturn(idle);
+        return metrics;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.distribuidos.authentication.config;
+
+import com.distribuidos.authentication.tuning.Tuning;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import reactor.netty.http.client.HttpClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WebClientConfigTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "HTTP11, false, false",
+            "HTTP11, true, true",
+            "H2, false, true",
+            "H2, true, true",
+            "H2C, false, false",
+            "H2C, true, false"
+    })
+    public void testHttpClient_SecuredOnlyWhenTheProtocolAllowsTls(UpstreamProtocol protocol,
+                                                                    boolean disableSslCertValidation,
+                                                                    boolean expectTls) {
+        EnvironmentConfig config = environmentConfig(disableSslCertValidation);
+
+        HttpClient httpClient = new WebClientConfig().httpClient("test", protocol, upstream(), config,
+                new UpstreamPools());
+        try {
+            assertEquals(expectTls, WebClientConfig.usesTls(protocol, disableSslCertValidation));
+            assertEquals(expectTls, httpClient.configuration().sslProvider() != null);
+        } finally {
+            httpClient.configuration().connectionProvider().dispose();
+        }
+    }
+
+    private static EnvironmentConfig environmentConfig(boolean disableSslCertValidation) {
+        EnvironmentConfig.Dns dns = new EnvironmentConfig.Dns();
+        dns.setCacheMinTtlInSeconds(30L);
+        dns.setCacheMaxTtlInSeconds(300L);
+        dns.setCacheNegativeTtlInSeconds(5L);
+
+        EnvironmentConfig config = new EnvironmentConfig();
+        config.setDns(dns);
+        config.setSecurityDisableSslCertValidation(disableSslCertValidation);
+        return config;
+    }
+
+    private static Tuning.Upstream upstream() {
+        return Tuning.Upstream.builder()
+                .responseTimeoutInMs(1000)
+                .pendingAcquireTimeoutInMs(1000)
+                .maxConnections(4)
+                .maxConcurrentStreams(10)
+                .minConnections(0)
+                .build();
+    }
+
+}
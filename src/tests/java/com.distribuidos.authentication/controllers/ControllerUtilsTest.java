@@ -0,0 +1,50 @@
+package com.distribuidos.authentication.controllers;
+
+import com.distribuidos.authentication.models.ResponseBody;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ControllerUtilsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testCreated_ReturnsCreatedStatus() {
+        ResponseEntity<ResponseBody<Boolean>> response = ControllerUtils.created(true);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(201, response.getBody().getStatus());
+    }
+
+    @Test
+    public void testCreated_ReusesBooleanEnvelope() {
+        assertSame(ControllerUtils.created(true), ControllerUtils.created(true));
+        assertSame(ControllerUtils.ok(false), ControllerUtils.ok(false));
+    }
+
+    @Test
+    public void testSerializer_BooleanEnvelope() throws Exception {
+        String json = objectMapper.writeValueAsString(ControllerUtils.created(true).getBody());
+
+        assertEquals("{\"result\":true,\"status\":201}", json);
+    }
+
+    @Test
+    public void testSerializer_UserEnvelope() throws Exception {
+        UserEntity user = UserEntity.builder()
+                .documentId(123L)
+                .fullName("Jane Doe")
+                .build();
+
+        String json = objectMapper.writeValueAsString(ControllerUtils.ok(user).getBody());
+
+        assertEquals("{\"result\":{\"documentId\":123,\"fullName\":\"Jane Doe\"},\"status\":200}", json);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.distribuidos.authentication.deadline;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeadlineWebFilterTest {
+
+    private static final String HEADER = "X-Request-Timeout-Ms";
+
+    private DeadlineWebFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        EnvironmentConfig.RequestDeadline requestDeadline = new EnvironmentConfig.RequestDeadline();
+        requestDeadline.setHeader(HEADER);
+        requestDeadline.setDefaultBudgetInMs(10_000L);
+        requestDeadline.setRouteBudgetsInMs(Map.of("/auth/login", 5_000L));
+        requestDeadline.setMinAttemptBudgetInMs(100L);
+
+        EnvironmentConfig environmentConfig = new EnvironmentConfig();
+        environmentConfig.setRequestDeadline(requestDeadline);
+
+        filter = new DeadlineWebFilter(environmentConfig);
+    }
+
+    @Test
+    public void testFilter_UsesTheRouteBudget() {
+        long remaining = remainingMs(MockServerHttpRequest.post("/auth/login"));
+
+        assertTrue(remaining > 4_000 && remaining <= 5_000);
+    }
+
+    @Test
+    public void testFilter_FallsBackToTheDefaultBudget() {
+        long remaining = remainingMs(MockServerHttpRequest.get("/auth/me"));
+
+        assertTrue(remaining > 9_000 && remaining <= 10_000);
+    }
+
+    @Test
+    public void testFilter_ClientHeaderLowersTheBudget() {
+        long remaining = remainingMs(MockServerHttpRequest.post("/auth/login").header(HEADER, " 300 "));
+
+        assertTrue(remaining <= 300);
+    }
+
+    @Test
+    public void testFilter_ClientHeaderCannotRaiseTheBudget() {
+        long remaining = remainingMs(MockServerHttpRequest.post("/auth/login").header(HEADER, "60000"));
+
+        assertTrue(remaining > 4_000 && remaining <= 5_000);
+    }
+
+    @Test
+    public void testFilter_IgnoresMalformedClientHeader() {
+        long remaining = remainingMs(MockServerHttpRequest.post("/auth/login").header(HEADER, "soon"));
+
+        assertTrue(remaining > 4_000 && remaining <= 5_000);
+    }
+
+    @Test
+    public void testFilter_NegativeClientHeaderExpiresTheRequest() {
+        AtomicReference<Deadline> deadline = new AtomicReference<>();
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(
+                        MockServerHttpRequest.post("/auth/login").header(HEADER, "-5")), capture(deadline)))
+                .verifyComplete();
+
+        assertTrue(deadline.get().isExpired());
+    }
+
+    private long remainingMs(MockServerHttpRequest.BaseBuilder<?> request) {
+        AtomicReference<Deadline> deadline = new AtomicReference<>();
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(request), capture(deadline)))
+                .verifyComplete();
+
+        return deadline.get().remaining().toMillis();
+    }
+
+    // Stands in for the rest of the chain, propagation means the deadline is visible downstream
+    private static WebFilterChain capture(AtomicReference<Deadline> deadline) {
+        return exchange -> Mono.deferContextual(context -> {
+            deadline.set(context.get(Deadline.class));
+            return Mono.empty();
+        });
+    }
+
+}
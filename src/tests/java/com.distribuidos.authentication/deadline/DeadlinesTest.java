@@ -0,0 +1,115 @@
+package com.distribuidos.authentication.deadline;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.DeadlineExceededException;
+import com.distribuidos.authentication.exceptions.UserUpstreamException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DeadlinesTest {
+
+    private static final String PHASE = "users.findUserByDocumentId";
+
+    private SimpleMeterRegistry meterRegistry;
+    private Deadlines deadlines;
+
+    @BeforeEach
+    public void setUp() {
+        EnvironmentConfig.RequestDeadline requestDeadline = new EnvironmentConfig.RequestDeadline();
+        requestDeadline.setMinAttemptBudgetInMs(100L);
+
+        EnvironmentConfig environmentConfig = new EnvironmentConfig();
+        environmentConfig.setRequestDeadline(requestDeadline);
+
+        meterRegistry = new SimpleMeterRegistry();
+        deadlines = new Deadlines(meterRegistry, environmentConfig);
+    }
+
+    @Test
+    public void testBound_UntouchedWithoutDeadline() {
+        StepVerifier.create(Mono.just("ok").transform(deadlines.bound(PHASE)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertEquals(0, meterRegistry.getMeters().size());
+    }
+
+    @Test
+    public void testBound_FailsFastOnExpiredDeadline() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> call = Mono.fromSupplier(() -> {
+            subscriptions.incrementAndGet();
+            return "ok";
+        });
+
+        StepVerifier.create(call.transform(deadlines.bound(PHASE)).contextWrite(withDeadline(Duration.ZERO)))
+                .expectError(DeadlineExceededException.class)
+                .verify();
+
+        assertEquals(0, subscriptions.get());
+        assertEquals(1.0, meterRegistry.get("auth.deadline.exceeded").tag("phase", PHASE).counter().count());
+    }
+
+    @Test
+    public void testBound_CutsCallsPastTheDeadline() {
+        StepVerifier.create(Mono.never().transform(deadlines.bound(PHASE))
+                        .contextWrite(withDeadline(Duration.ofMillis(50))))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testBound_RecordsEveryCallOnTheSameMeters() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(Mono.just("ok").transform(deadlines.bound(PHASE))
+                            .contextWrite(withDeadline(Duration.ofSeconds(5))))
+                    .expectNext("ok")
+                    .verifyComplete();
+        }
+
+        assertEquals(3, meterRegistry.get("auth.deadline.phase.duration").tag("phase", PHASE).timer().count());
+        assertEquals(3, meterRegistry.get("auth.deadline.phase.budget.consumed").tag("phase", PHASE)
+                .summary().count());
+    }
+
+    @Test
+    public void testAttempt_StopsRetriesWithoutBudgetForAnotherAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+        // Each attempt takes 80 ms, with 150 ms left a second one would start with less than 100 ms
+        Mono<String> call = Mono.delay(Duration.ofMillis(80))
+                .doOnSubscribe(ignored -> attempts.incrementAndGet())
+                .then(Mono.error(new UserUpstreamException("unavailable")));
+
+        StepVerifier.create(call
+                        .transform(deadlines.attempt(PHASE))
+                        .retryWhen(Retry.max(5).filter(UserUpstreamException.class::isInstance))
+                        .transform(deadlines.bound(PHASE))
+                        .contextWrite(withDeadline(Duration.ofMillis(150))))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testAttempt_UntouchedWithoutDeadline() {
+        StepVerifier.create(Mono.just("ok").transform(deadlines.attempt(PHASE)))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    private static Context withDeadline(Duration budget) {
+        return Context.of(Deadline.class, Deadline.after(budget));
+    }
+
+}
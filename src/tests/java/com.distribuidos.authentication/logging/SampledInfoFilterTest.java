@@ -0,0 +1,54 @@
+package com.distribuidos.authentication.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SampledInfoFilterTest {
+
+    private SampledInfoFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new SampledInfoFilter();
+        filter.setRate(2);
+        filter.setLoggerPrefix("com.distribuidos");
+        filter.setMaxTemplates(2);
+    }
+
+    @Test
+    public void testDecide_SamplesEachTemplateIndependently() {
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.INFO, "first {}")));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.INFO, "second {}")));
+        assertEquals(FilterReply.DENY, filter.decide(event(Level.INFO, "first {}")));
+        assertEquals(FilterReply.DENY, filter.decide(event(Level.INFO, "second {}")));
+    }
+
+    @Test
+    public void testDecide_TemplatesPastTheLimitShareOneCounter() {
+        filter.decide(event(Level.INFO, "first {}"));
+        filter.decide(event(Level.INFO, "second {}"));
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.INFO, "user 1 logged in")));
+        assertEquals(FilterReply.DENY, filter.decide(event(Level.INFO, "user 2 logged in")));
+    }
+
+    @Test
+    public void testDecide_WarningsAlwaysPass() {
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.WARN, "warn {}")));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.WARN, "warn {}")));
+    }
+
+    private static LoggingEvent event(Level level, String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLevel(level);
+        event.setLoggerName("com.distribuidos.authentication.services.AuthService");
+        event.setMessage(message);
+        return event;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.distribuidos.authentication.security;
+
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtUtilTest {
+
+    private static final String SECRET =
+            "EPzuE1fY/zKURZ0eklR27ULNZTpAO51+dfDWt3iJRI7zyv+UdDjXaDlkV7X1I04r89mvdet5CAWSFkfrKv+fmg==";
+
+    private static final UserEntity USER = UserEntity.builder()
+            .documentId(123L)
+            .fullName("Jane Doe")
+            .email("jane@example.com")
+            .status("ACTIVE")
+            .build();
+
+    private final List<TokenCodec> codecs = List.of(new JwtTokenCodec(SECRET), new CompactTokenCodec(SECRET));
+
+    @Test
+    public void testVerify_AcceptsBothFormatsDuringMigration() {
+        String jwt = jwtUtil(JwtTokenCodec.NAME, 60000L).generateToken("123");
+        String compact = jwtUtil(CompactTokenCodec.NAME, 60000L).generateToken("123");
+
+        JwtUtil jwtUtil = jwtUtil(CompactTokenCodec.NAME, 60000L);
+
+        assertEquals("123", jwtUtil.getUsernameFromToken(jwt));
+        assertEquals("123", jwtUtil.getUsernameFromToken(compact));
+        assertTrue(compact.length() < jwt.length());
+    }
+
+    @Test
+    public void testVerify_RejectsTamperedCompactToken() {
+        JwtUtil jwtUtil = jwtUtil(CompactTokenCodec.NAME, 60000L);
+        String token = jwtUtil.generateToken("123");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    public void testVerify_RejectsExpiredToken() {
+        JwtUtil jwtUtil = jwtUtil(CompactTokenCodec.NAME, -1000L);
+
+        assertFalse(jwtUtil.validateToken(jwtUtil.generateToken("123")));
+    }
+
+    @Test
+    public void testGenerateToken_CarriesProfileClaimsInBothFormats() {
+        for (String codec : List.of(JwtTokenCodec.NAME, CompactTokenCodec.NAME)) {
+            JwtUtil jwtUtil = jwtUtil(codec, 60000L);
+
+            TokenClaims claims = jwtUtil.verify(jwtUtil.generateToken(USER)).orElseThrow();
+
+            assertEquals("123", claims.getSubject());
+            assertEquals("Jane Doe", claims.getFullName());
+            assertEquals("jane@example.com", claims.getEmail());
+            assertEquals("ACTIVE", claims.getStatus());
+        }
+    }
+
+    @Test
+    public void testGenerateToken_DropsLastProfileClaimsOverBudget() {
+        JwtUtil unbounded = new JwtUtil(codecs, CompactTokenCodec.NAME, 60000L, 100, "name,email,status", 1024);
+        int withoutStatus = new JwtUtil(codecs, CompactTokenCodec.NAME, 60000L, 100, "name,email", 1024)
+                .generateToken(USER).length();
+        JwtUtil bounded = new JwtUtil(codecs, CompactTokenCodec.NAME, 60000L, 100, "name,email,status",
+                withoutStatus);
+
+        String token = bounded.generateToken(USER);
+        TokenClaims claims = bounded.verify(token).orElseThrow();
+
+        assertTrue(unbounded.generateToken(USER).length() > withoutStatus);
+        assertTrue(token.length() <= withoutStatus);
+        assertEquals("jane@example.com", claims.getEmail());
+        assertNull(claims.getStatus());
+    }
+
+    private JwtUtil jwtUtil(String codec, long expiration) {
+        return new JwtUtil(codecs, codec, expiration, 100, "name,email,status", 1024);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.distribuidos.authentication.security;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServiceClientAuthenticationConverterTest {
+
+    private final ServiceClientAuthenticationConverter converter = new ServiceClientAuthenticationConverter(Map.of(
+            "gateway", client("s3cret", "INTROSPECTION"),
+            "disabled", client("", "INTROSPECTION")));
+
+    @Test
+    public void testAuthenticate_GrantsTheClientRoles() {
+        Authentication authentication = converter.authenticate(basic("gateway:s3cret")).orElseThrow();
+
+        assertEquals("gateway", authentication.getPrincipal());
+        assertEquals(List.of("ROLE_INTROSPECTION"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+    }
+
+    @Test
+    public void testAuthenticate_RejectsWrongSecret() {
+        assertTrue(converter.authenticate(basic("gateway:secret")).isEmpty());
+    }
+
+    @Test
+    public void testAuthenticate_RejectsUnknownAndDisabledClients() {
+        assertTrue(converter.authenticate(basic("unknown:s3cret")).isEmpty());
+        assertTrue(converter.authenticate(basic("disabled:")).isEmpty());
+    }
+
+    @Test
+    public void testAuthenticate_RejectsMalformedCredentials() {
+        assertTrue(converter.authenticate("not base64!").isEmpty());
+        assertTrue(converter.authenticate(basic("gateway")).isEmpty());
+    }
+
+    private static String basic(String credentials) {
+        return Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EnvironmentConfig.ServiceClient client(String secret, String role) {
+        EnvironmentConfig.ServiceClient client = new EnvironmentConfig.ServiceClient();
+        client.setSecret(secret);
+        client.setRoles(List.of(role));
+        return client;
+    }
+
+}
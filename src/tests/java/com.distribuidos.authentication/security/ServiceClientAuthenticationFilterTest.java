@@ -0,0 +1,75 @@
+package com.distribuidos.authentication.security;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServiceClientAuthenticationFilterTest {
+
+    private final AtomicInteger chainInvocations = new AtomicInteger();
+    private final List<String> principals = new ArrayList<>();
+
+    private final ServiceClientAuthenticationFilter filter = new ServiceClientAuthenticationFilter(
+            new ServiceClientAuthenticationConverter(Map.of("gateway", client("s3cret", "INTROSPECTION"))));
+
+    private final WebFilterChain chain = exchange -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .map(authentication -> (String) authentication.getPrincipal())
+            .defaultIfEmpty("anonymous")
+            .doOnNext(principal -> {
+                chainInvocations.incrementAndGet();
+                principals.add(principal);
+            })
+            .then();
+
+    @Test
+    public void testFilter_RunsTheChainOnceForAnAuthenticatedClient() {
+        StepVerifier.create(filter.filter(exchange("gateway:s3cret"), chain)).verifyComplete();
+
+        assertEquals(1, chainInvocations.get());
+        assertEquals(List.of("gateway"), principals);
+    }
+
+    @Test
+    public void testFilter_RunsTheChainOnceWithoutCredentials() {
+        StepVerifier.create(filter.filter(exchange(null), chain)).verifyComplete();
+        StepVerifier.create(filter.filter(exchange("gateway:wrong"), chain)).verifyComplete();
+
+        assertEquals(2, chainInvocations.get());
+        assertTrue(principals.stream().allMatch("anonymous"::equals));
+    }
+
+    private static MockServerWebExchange exchange(String credentials) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.post("/auth/introspect");
+        if (credentials != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Basic "
+                    + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static EnvironmentConfig.ServiceClient client(String secret, String role) {
+        EnvironmentConfig.ServiceClient client = new EnvironmentConfig.ServiceClient();
+        client.setSecret(secret);
+        client.setRoles(List.of(role));
+        return client;
+    }
+
+}
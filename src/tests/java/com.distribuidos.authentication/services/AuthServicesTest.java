@@ -2,28 +2,42 @@ package com.distribuidos.authentication.services;
 
 import com.distribuidos.authentication.config.EnvironmentConfig;
 import com.distribuidos.authentication.exceptions.CentralizerValidateUserException;
+import com.distribuidos.authentication.exceptions.InvalidTokenException;
 import com.distribuidos.authentication.exceptions.UserAlreadyExistsException;
 import com.distribuidos.authentication.models.LoginRequest;
+import com.distribuidos.authentication.security.CompactTokenCodec;
+import com.distribuidos.authentication.security.JwtTokenCodec;
 import com.distribuidos.authentication.security.JwtUtil;
+import com.distribuidos.authentication.security.TokenClaims;
 import com.distribuidos.authentication.services.facades.centralizer.CentralizerFacade;
 import com.distribuidos.authentication.services.facades.centralizer.models.RegisterCitizenRequest;
 import com.distribuidos.authentication.services.facades.users.UsersFacade;
 import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.distribuidos.authentication.services.registry.RegisteredDocumentsFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class AuthServicesTest {
 
+    private static final String SECRET =
+            "EPzuE1fY/zKURZ0eklR27ULNZTpAO51+dfDWt3iJRI7zyv+UdDjXaDlkV7X1I04r89mvdet5CAWSFkfrKv+fmg==";
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -39,6 +53,9 @@ public class AuthServicesTest {
     @Mock
     private EnvironmentConfig environmentConfig;
 
+    @Mock
+    private RegisteredDocumentsFilter registeredDocumentsFilter;
+
     @InjectMocks
     private AuthService authService;
 
@@ -92,6 +109,50 @@ public class AuthServicesTest {
                 .verify();
     }
 
+    @Test
+    public void testAuthRegisterUser_SkipsExistenceCheckWhenFilterSaysNotRegistered() {
+        UserEntity user = UserEntity.builder()
+                .documentId(123L)
+                .password("password")
+                .build();
+
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(registeredDocumentsFilter.isDefinitelyNotRegistered("123")).thenReturn(true);
+        when(centralizerFacade.validateUser(anyString())).thenReturn(Mono.just(true));
+        when(usersFacade.createUser(any(UserEntity.class))).thenReturn(Mono.just(true));
+        when(centralizerFacade.registerCitizen(any(RegisterCitizenRequest.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(authService.authRegisterUser(user))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(usersFacade, never()).findUserByDocumentId(anyString());
+        verify(registeredDocumentsFilter).recordRegistered("123");
+    }
+
+    @Test
+    public void testAuthRegisterUser_DuplicateMissedByFilterIsRejectedOnCreation() {
+        UserEntity user = UserEntity.builder()
+                .documentId(123L)
+                .password("password")
+                .build();
+
+        // Registered through another replica after the last snapshot
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(registeredDocumentsFilter.isDefinitelyNotRegistered("123")).thenReturn(true);
+        when(centralizerFacade.validateUser(anyString())).thenReturn(Mono.just(true));
+        when(usersFacade.createUser(any(UserEntity.class)))
+                .thenReturn(Mono.error(new UserAlreadyExistsException("123")));
+
+        StepVerifier.create(authService.authRegisterUser(user))
+                .expectError(UserAlreadyExistsException.class)
+                .verify();
+
+        verify(usersFacade, never()).findUserByDocumentId(anyString());
+        verify(centralizerFacade, never()).registerCitizen(any(RegisterCitizenRequest.class));
+        verify(registeredDocumentsFilter, never()).recordRegistered(anyString());
+    }
+
     @Test
     public void testAuthRegisterUser_UserNotValid() {
         UserEntity user = UserEntity.builder()
@@ -124,7 +185,7 @@ public class AuthServicesTest {
 
         when(usersFacade.findUserByDocumentId(anyString())).thenReturn(Mono.just(userEntity));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
-        when(jwtUtil.generateToken(anyString())).thenReturn("token");
+        when(jwtUtil.generateToken(any(UserEntity.class))).thenReturn("token");
 
         Mono<UserEntity> result = authService.authLoginUser(loginRequest);
 
@@ -133,6 +194,40 @@ public class AuthServicesTest {
                 .verifyComplete();
     }
 
+    // Only meaningful under the blockhound profile, where a blocking call on a parallel thread throws. The
+    // password encoder and the token codecs are the real ones, they are what runs on the request thread.
+    @Test
+    public void testAuthLoginUser_DoesNotBlockNonBlockingThreads() {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        JwtUtil realJwtUtil = new JwtUtil(
+                List.of(new JwtTokenCodec(SECRET), new CompactTokenCodec(SECRET)),
+                CompactTokenCodec.NAME, 60000L, 100, "name,email,status", 1024);
+        AuthService service = new AuthService(bcrypt, realJwtUtil, centralizerFacade, usersFacade,
+                environmentConfig, registeredDocumentsFilter);
+
+        LoginRequest loginRequest = LoginRequest.builder()
+                .document("123")
+                .password("password")
+                .build();
+
+        UserEntity userEntity = UserEntity.builder()
+                .documentId(123L)
+                .password(bcrypt.encode("password"))
+                .build();
+
+        // Loads the MAC providers once, lazy JDK initialization is not part of the request path
+        realJwtUtil.generateToken(userEntity);
+
+        when(usersFacade.findUserByDocumentId(anyString())).thenReturn(Mono.just(userEntity));
+
+        Mono<UserEntity> result = Mono.defer(() -> service.authLoginUser(loginRequest))
+                .subscribeOn(Schedulers.parallel());
+
+        StepVerifier.create(result)
+                .expectNextMatches(user -> realJwtUtil.validateToken(user.getToken()))
+                .verifyComplete();
+    }
+
     @Test
     public void testAuthLoginUser_InvalidPassword() {
         LoginRequest loginRequest = LoginRequest.builder()
@@ -169,4 +264,27 @@ public class AuthServicesTest {
                 .verifyComplete();
     }
 
+    @Test
+    public void testAuthCurrentUser_MapsClaimsToUser() {
+        TokenClaims claims = TokenClaims.builder()
+                .subject("123")
+                .fullName("Ana Perez")
+                .build();
+
+        StepVerifier.create(authService.authCurrentUser(claims))
+                .expectNextMatches(user -> user.getDocumentId() == 123L && "Ana Perez".equals(user.getFullName()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testAuthCurrentUser_NonNumericSubject() {
+        TokenClaims claims = TokenClaims.builder()
+                .subject("service-account")
+                .build();
+
+        StepVerifier.create(authService.authCurrentUser(claims))
+                .expectError(InvalidTokenException.class)
+                .verify();
+    }
+
 }
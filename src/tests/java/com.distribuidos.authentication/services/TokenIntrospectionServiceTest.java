@@ -0,0 +1,98 @@
+package com.distribuidos.authentication.services;
+
+import com.distribuidos.authentication.exceptions.InvalidIntrospectionRequestException;
+import com.distribuidos.authentication.models.IntrospectionRequest;
+import com.distribuidos.authentication.models.TokenIntrospection;
+import com.distribuidos.authentication.security.CompactTokenCodec;
+import com.distribuidos.authentication.security.JwtTokenCodec;
+import com.distribuidos.authentication.security.JwtUtil;
+import com.distribuidos.authentication.security.TokenCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenIntrospectionServiceTest {
+
+    private static final String SECRET =
+            "EPzuE1fY/zKURZ0eklR27ULNZTpAO51+dfDWt3iJRI7zyv+UdDjXaDlkV7X1I04r89mvdet5CAWSFkfrKv+fmg==";
+
+    private JwtUtil jwtUtil;
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    @BeforeEach
+    public void setUp() {
+        List<TokenCodec> codecs = List.of(new JwtTokenCodec(SECRET), new CompactTokenCodec(SECRET));
+        jwtUtil = new JwtUtil(codecs, CompactTokenCodec.NAME, 60000L, 100, "name,email,status", 1024);
+
+        tokenIntrospectionService = new TokenIntrospectionService(jwtUtil);
+        ReflectionTestUtils.setField(tokenIntrospectionService, "maxBatchSize", 2);
+    }
+
+    @Test
+    public void testIntrospect_ReportsEachTokenInOrder() {
+        String token = jwtUtil.generateToken("123");
+
+        StepVerifier.create(tokenIntrospectionService.introspect(IntrospectionRequest.builder()
+                        .token(token)
+                        .tokens(List.of("not-a-token"))
+                        .build()))
+                .expectNextMatches(introspections -> introspections.size() == 2
+                        && introspections.get(0).isActive()
+                        && "123".equals(introspections.get(0).getSub())
+                        && !introspections.get(1).isActive()
+                        && introspections.get(1).getSub() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testIntrospect_RejectsBatchesOverTheLimit() {
+        StepVerifier.create(tokenIntrospectionService.introspect(IntrospectionRequest.builder()
+                        .token("a")
+                        .tokens(List.of("b", "c"))
+                        .build()))
+                .expectError(InvalidIntrospectionRequestException.class)
+                .verify();
+    }
+
+    @Test
+    public void testIntrospect_RejectsEmptyRequests() {
+        StepVerifier.create(tokenIntrospectionService.introspect(IntrospectionRequest.builder()
+                        .tokens(Collections.emptyList())
+                        .build()))
+                .expectError(InvalidIntrospectionRequestException.class)
+                .verify();
+    }
+
+    @Test
+    public void testCacheControl_CachedUntilTheFirstActiveTokenExpires() {
+        long now = Instant.now().getEpochSecond();
+        List<TokenIntrospection> introspections = List.of(
+                TokenIntrospection.builder().active(true).exp(now + 600).build(),
+                TokenIntrospection.builder().active(true).exp(now + 60).build(),
+                TokenIntrospection.builder().active(false).build());
+
+        String header = tokenIntrospectionService.cacheControl(introspections).getHeaderValue();
+
+        assertTrue(header.contains("private"));
+        long maxAge = Long.parseLong(header.replaceAll(".*max-age=(\\d+).*", "$1"));
+        assertTrue(maxAge > 0 && maxAge <= 60);
+    }
+
+    @Test
+    public void testCacheControl_NotCachedWithoutActiveTokens() {
+        List<TokenIntrospection> introspections = List.of(TokenIntrospection.builder().active(false).build());
+
+        assertEquals(CacheControl.noStore().getHeaderValue(),
+                tokenIntrospectionService.cacheControl(introspections).getHeaderValue());
+    }
+
+}
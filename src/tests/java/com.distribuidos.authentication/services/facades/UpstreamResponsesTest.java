@@ -0,0 +1,47 @@
+package com.distribuidos.authentication.services.facades;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.test.StepVerifier;
+
+public class UpstreamResponsesTest {
+
+    @Test
+    public void testReadErrorBody_KeepsBodiesWithinTheLimit() {
+        ClientResponse response = ClientResponse.create(HttpStatus.BAD_GATEWAY).body("upstream down").build();
+
+        StepVerifier.create(UpstreamResponses.readErrorBody(response, 13))
+                .expectNext("upstream down")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadErrorBody_TruncatesLongBodies() {
+        ClientResponse response = ClientResponse.create(HttpStatus.BAD_GATEWAY).body("upstream down").build();
+
+        StepVerifier.create(UpstreamResponses.readErrorBody(response, 8))
+                .expectNext("upstream...[truncated]")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadErrorBody_DoesNotSplitMultiByteCharacters() {
+        // "ñ" is two bytes in UTF-8, the limit falls between them
+        ClientResponse response = ClientResponse.create(HttpStatus.BAD_GATEWAY).body("añb").build();
+
+        StepVerifier.create(UpstreamResponses.readErrorBody(response, 2))
+                .expectNext("a...[truncated]")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadErrorBody_EmptyBodyYieldsEmptyString() {
+        ClientResponse response = ClientResponse.create(HttpStatus.BAD_GATEWAY).build();
+
+        StepVerifier.create(UpstreamResponses.readErrorBody(response, 8))
+                .expectNext("")
+                .verifyComplete();
+    }
+
+}
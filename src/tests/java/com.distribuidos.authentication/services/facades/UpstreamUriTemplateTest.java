@@ -0,0 +1,34 @@
+package com.distribuidos.authentication.services.facades;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamUriTemplateTest {
+
+    private static final String DOMAIN = "https://users.example.com/apis";
+
+    @Test
+    public void testExpand_EncodesThePathVariable() {
+        UpstreamUriTemplate template = UpstreamUriTemplate.of(DOMAIN, "/users/{documentId}");
+
+        assertEquals(URI.create(DOMAIN + "/users/123"), template.expand("123"));
+        assertEquals(URI.create(DOMAIN + "/users/12%2F3%20x"), template.expand("12/3 x"));
+    }
+
+    @Test
+    public void testUri_ResolvesLiteralPathOnce() {
+        UpstreamUriTemplate template = UpstreamUriTemplate.of(DOMAIN, "/users");
+
+        assertEquals(URI.create(DOMAIN + "/users"), template.uri());
+    }
+
+    @Test
+    public void testOf_RejectsSeveralPathVariables() {
+        assertThrows(IllegalArgumentException.class, () -> UpstreamUriTemplate.of(DOMAIN, "/users/{a}/{b}"));
+    }
+
+}
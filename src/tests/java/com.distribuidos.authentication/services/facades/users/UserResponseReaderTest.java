@@ -0,0 +1,99 @@
+package com.distribuidos.authentication.services.facades.users;
+
+import com.distribuidos.authentication.exceptions.UserUpstreamException;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class UserResponseReaderTest {
+
+    private static final ObjectReader USER_READER = new ObjectMapper().readerFor(UserEntity.class);
+
+    private static final String ENVELOPE = "{\"status\":200,\"meta\":{\"result\":{\"documentId\":9}},"
+            + "\"result\":{\"documentId\":123,\"fullName\":\"Añá Pérez\",\"email\":\"a@b.co\","
+            + "\"extra\":{\"nested\":[1,2]}},\"message\":\"ok\"}";
+
+    @Test
+    public void testReadUser_BindsTheResultObject() {
+        StepVerifier.create(UserResponseReader.readUser(response(ENVELOPE, ENVELOPE.length()), 1024, USER_READER))
+                .expectNextMatches(user -> user.getDocumentId() == 123L
+                        && "Añá Pérez".equals(user.getFullName())
+                        && "a@b.co".equals(user.getEmail()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadUser_ParsesChunksSplitAnywhere() {
+        // Three byte chunks split tokens and multi-byte characters
+        StepVerifier.create(UserResponseReader.readUser(response(ENVELOPE, 3), 1024, USER_READER))
+                .expectNextMatches(user -> user.getDocumentId() == 123L
+                        && "Añá Pérez".equals(user.getFullName()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadUser_StopsReadingOnceTheResultIsComplete() {
+        // The trailing bytes would exceed the limit if they were read
+        String body = "{\"result\":{\"documentId\":1}," + "\"padding\":\"" + "x".repeat(2048) + "\"}";
+
+        StepVerifier.create(UserResponseReader.readUser(response(body, 16), 64, USER_READER))
+                .expectNextMatches(user -> user.getDocumentId() == 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadUser_FailsPastTheSizeLimit() {
+        String body = "{\"padding\":\"" + "x".repeat(2048) + "\",\"result\":{\"documentId\":1}}";
+
+        // Bounded, a lost error would otherwise hang instead of failing
+        StepVerifier.create(UserResponseReader.readUser(response(body, 16), 64, USER_READER))
+                .expectError(UserUpstreamException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testReadUser_EmptyWithoutResult() {
+        String body = "{\"status\":200,\"result\":null}";
+
+        StepVerifier.create(UserResponseReader.readUser(response(body, body.length()), 1024, USER_READER))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadUser_FailsOnMalformedJson() {
+        String body = "{\"result\":{\"documentId\":";
+
+        StepVerifier.create(UserResponseReader.readUser(response(body, body.length()), 1024, USER_READER))
+                .expectError(UserUpstreamException.class)
+                .verify();
+    }
+
+    private static ClientResponse response(String body, int chunkSize) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize))));
+        }
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(Flux.fromIterable(chunks))
+                .build();
+    }
+
+}
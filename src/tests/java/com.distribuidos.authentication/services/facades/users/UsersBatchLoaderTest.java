@@ -0,0 +1,207 @@
+package com.distribuidos.authentication.services.facades.users;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.deadline.Deadline;
+import com.distribuidos.authentication.deadline.Deadlines;
+import com.distribuidos.authentication.exceptions.UserNotFoundException;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.distribuidos.authentication.tuning.Tuning;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UsersBatchLoaderTest {
+
+    private static final String USERS_DOMAIN = "http://users.local";
+    private static final String CALLER = "caller";
+
+    private final AtomicInteger bulkRequests = new AtomicInteger();
+    private final AtomicInteger singleRequests = new AtomicInteger();
+    private final List<String> upstreamCallers = new CopyOnWriteArrayList<>();
+
+    private EnvironmentConfig environmentConfig;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        EnvironmentConfig.Domains domains = new EnvironmentConfig.Domains();
+        domains.setUsersDomain(USERS_DOMAIN);
+
+        EnvironmentConfig.UserLookupBatch userLookupBatch = new EnvironmentConfig.UserLookupBatch();
+        userLookupBatch.setEnabled(true);
+        userLookupBatch.setWindowInMs(20L);
+        userLookupBatch.setMaxSize(10);
+
+        EnvironmentConfig.RequestDeadline requestDeadline = new EnvironmentConfig.RequestDeadline();
+        requestDeadline.setMinAttemptBudgetInMs(100L);
+
+        environmentConfig = new EnvironmentConfig();
+        environmentConfig.setDomains(domains);
+        environmentConfig.setUserLookupBatch(userLookupBatch);
+        environmentConfig.setRequestDeadline(requestDeadline);
+        environmentConfig.setMaxErrorBodySizeInBytes(1024);
+
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testLoad_ConcurrentLookupsShareOneBulkRequest() {
+        UsersBatchLoader loader = loader(stubUsersService(HttpStatus.OK));
+
+        Mono<UserEntity> first = loader.load("1", this::singleLookup);
+        Mono<UserEntity> second = loader.load("2", this::singleLookup);
+
+        StepVerifier.create(Mono.zip(first, second))
+                .expectNextMatches(users -> users.getT1().getDocumentId() == 1L
+                        && users.getT2().getDocumentId() == 2L)
+                .verifyComplete();
+
+        assertEquals(1, bulkRequests.get());
+        assertEquals(0, singleRequests.get());
+    }
+
+    @Test
+    public void testLoad_MissingUserFailsWithNotFound() {
+        UsersBatchLoader loader = loader(stubUsersService(HttpStatus.OK));
+
+        StepVerifier.create(loader.load("3", this::singleLookup))
+                .expectError(UserNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void testLoad_FallsBackToSingleLookupsWithoutBulkEndpoint() {
+        UsersBatchLoader loader = loader(stubUsersService(HttpStatus.NOT_FOUND));
+
+        StepVerifier.create(loader.load("1", this::singleLookup))
+                .expectNextMatches(user -> user.getDocumentId() == 1L)
+                .verifyComplete();
+
+        StepVerifier.create(loader.load("2", this::singleLookup))
+                .expectNextMatches(user -> user.getDocumentId() == 2L)
+                .verifyComplete();
+
+        assertEquals(1, bulkRequests.get());
+        assertEquals(2, singleRequests.get());
+    }
+
+    @Test
+    public void testLoad_BulkCallRunsWithTheFirstCallerContext() {
+        UsersBatchLoader loader = loader(stubUsersService(HttpStatus.OK));
+
+        Mono<UserEntity> first = loader.load("1", this::singleLookup)
+                .contextWrite(context -> context.put(CALLER, "a"));
+        Mono<UserEntity> second = loader.load("2", this::singleLookup)
+                .contextWrite(context -> context.put(CALLER, "b"));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(List.of("a"), upstreamCallers);
+    }
+
+    @Test
+    public void testLoad_BulkCallRunsWithTheLongestCallerDeadline() {
+        UsersBatchLoader loader = loader(stubUsersService(HttpStatus.OK));
+
+        // Too little left for an upstream attempt, it must not fail the caller batched with it
+        Mono<UserEntity> expiring = loader.load("1", this::singleLookup)
+                .contextWrite(context -> context.put(CALLER, "a")
+                        .put(Deadline.class, Deadline.after(Duration.ofMillis(10))));
+        Mono<UserEntity> patient = loader.load("2", this::singleLookup)
+                .contextWrite(context -> context.put(CALLER, "b")
+                        .put(Deadline.class, Deadline.after(Duration.ofSeconds(5))));
+
+        StepVerifier.create(Mono.zip(expiring, patient))
+                .expectNextMatches(users -> users.getT2().getDocumentId() == 2L)
+                .verifyComplete();
+
+        assertEquals(List.of("b"), upstreamCallers);
+    }
+
+    @Test
+    public void testLoad_SingleLookupFallbackRunsWithItsCallerContext() {
+        UsersBatchLoader loader = loader(stubUsersService(HttpStatus.NOT_FOUND));
+
+        StepVerifier.create(loader.load("1", this::singleLookup).contextWrite(context -> context.put(CALLER, "a")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // The bulk probe and the fallback both see the caller
+        assertEquals(List.of("a", "a"), upstreamCallers);
+    }
+
+    @Test
+    public void testLoad_BatchFlushedOnSizeRecordsItsOwnWindow() {
+        environmentConfig.getUserLookupBatch().setWindowInMs(1000L);
+        environmentConfig.getUserLookupBatch().setMaxSize(1);
+        UsersBatchLoader loader = loader(stubUsersService(HttpStatus.OK));
+
+        StepVerifier.create(loader.load("1", this::singleLookup))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        Timer batchWindow = meterRegistry.get("auth.users.lookup.batch.window").timer();
+        assertEquals(1, batchWindow.count());
+        assertTrue(batchWindow.max(TimeUnit.MILLISECONDS) < 1000);
+    }
+
+    private UsersBatchLoader loader(WebClient webClient) {
+        return new UsersBatchLoader(webClient, environmentConfig,
+                new TuningRegistry(Tuning.builder()
+                        .serviceRetryMaxAttempts(0)
+                        .userLookupBatchWindowInMs(environmentConfig.getUserLookupBatch().getWindowInMs())
+                        .userLookupBatchMaxSize(environmentConfig.getUserLookupBatch().getMaxSize())
+                        .build()),
+                new Deadlines(meterRegistry, environmentConfig), meterRegistry);
+    }
+
+    private Mono<UserEntity> singleLookup(String documentId) {
+        return Mono.deferContextual(context -> {
+            singleRequests.incrementAndGet();
+            context.<String>getOrEmpty(CALLER).ifPresent(upstreamCallers::add);
+            return Mono.just(UserEntity.builder()
+                    .documentId(Long.valueOf(documentId))
+                    .build());
+        });
+    }
+
+    // Local stand-in for the users service bulk endpoint, it knows users 1 and 2
+    private WebClient stubUsersService(HttpStatus bulkStatus) {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.deferContextual(context -> {
+                    if (HttpMethod.POST.equals(request.method())
+                            && request.url().toString().equals(USERS_DOMAIN + "/users/batch")) {
+                        bulkRequests.incrementAndGet();
+                        context.<String>getOrEmpty(CALLER).ifPresent(upstreamCallers::add);
+                        return Mono.just(ClientResponse.create(bulkStatus)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"result\":[{\"documentId\":1},{\"documentId\":2}],\"status\":200}")
+                                .build());
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                }))
+                .build();
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.distribuidos.authentication.services.idempotency;
+
+import com.distribuidos.authentication.config.EnvironmentConfig;
+import com.distribuidos.authentication.exceptions.IdempotencyCapacityException;
+import com.distribuidos.authentication.exceptions.IdempotencyKeyConflictException;
+import com.distribuidos.authentication.services.facades.users.models.UserEntity;
+import com.distribuidos.authentication.services.sharedstate.InMemorySharedStateStore;
+import com.distribuidos.authentication.services.sharedstate.SharedStateStore;
+import com.distribuidos.authentication.tuning.Tuning;
+import com.distribuidos.authentication.tuning.TuningRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class IdempotencyStoreTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private TuningRegistry tuningRegistry;
+    private SharedStateStore sharedStateStore;
+    private EnvironmentConfig environmentConfig;
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    public void setUp() {
+        tuningRegistry = new TuningRegistry(Tuning.builder()
+                .idempotencyTtlInSeconds(60L)
+                .idempotencyMaxEntries(10)
+                .build());
+
+        EnvironmentConfig.SharedState sharedState = new EnvironmentConfig.SharedState();
+        sharedState.setNearCacheTtlInSeconds(30L);
+        sharedState.setNearCacheMaxEntries(100);
+        EnvironmentConfig.Idempotency idempotency = new EnvironmentConfig.Idempotency();
+        idempotency.setFingerprintSecret("fingerprint-secret");
+        environmentConfig = new EnvironmentConfig();
+        environmentConfig.setSharedState(sharedState);
+        environmentConfig.setIdempotency(idempotency);
+
+        sharedStateStore = new InMemorySharedStateStore();
+        idempotencyStore = replica();
+    }
+
+    @Test
+    public void testExecute_ReplaysCompletedResult() {
+        StepVerifier.create(idempotencyStore.execute("key", "123", Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(idempotencyStore.execute("key", "123", Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testExecute_RejectsKeyReuseForAnotherRequest() {
+        StepVerifier.create(idempotencyStore.execute("key", "123", Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(idempotencyStore.execute("key", "456", Boolean.class, this::register))
+                .expectError(IdempotencyKeyConflictException.class)
+                .verify();
+    }
+
+    @Test
+    public void testExecute_ForgetsFailedOperations() {
+        StepVerifier.create(idempotencyStore.execute("key", "123", Boolean.class,
+                        () -> Mono.<Boolean>error(new IllegalStateException("upstream down"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(idempotencyStore.execute("key", "123", Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testExecute_ReplaysResultCompletedByAnotherReplica() {
+        StepVerifier.create(idempotencyStore.execute("key", "123", Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        IdempotencyStore otherReplica = replica();
+
+        StepVerifier.create(otherReplica.execute("key", "123", Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(replica().execute("key", "456", Boolean.class, this::register))
+                .expectError(IdempotencyKeyConflictException.class)
+                .verify();
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testExecute_RejectsKeyReuseWithAnotherPayloadForTheSameDocument() {
+        UserEntity user = UserEntity.builder().documentId(123L).email("a@example.com").build();
+
+        StepVerifier.create(idempotencyStore.execute("key", user, Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(idempotencyStore.execute("key", user.toBuilder().email("b@example.com").build(),
+                        Boolean.class, this::register))
+                .expectError(IdempotencyKeyConflictException.class)
+                .verify();
+    }
+
+    @Test
+    public void testExecute_SharesNoPlainDigestOfTheRequest() throws Exception {
+        UserEntity user = UserEntity.builder().documentId(123L).password("hunter2").build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        String plainDigest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(user)));
+
+        StepVerifier.create(idempotencyStore.execute("key", user, Boolean.class, this::register))
+                .expectNext(true)
+                .verifyComplete();
+
+        String record = sharedStateStore.get("idempotency:key").block();
+        assertNotNull(record);
+        assertFalse(record.contains(plainDigest));
+        assertFalse(record.contains("hunter2"));
+    }
+
+    @Test
+    public void testExecute_NeverEvictsOperationsInFlight() {
+        tuningRegistry = new TuningRegistry(tuningRegistry.current().toBuilder().idempotencyMaxEntries(2).build());
+        idempotencyStore = replica();
+        Sinks.One<Boolean> slowRegistration = Sinks.one();
+
+        idempotencyStore.execute("first", "1", Boolean.class, () -> registerWhen(slowRegistration)).subscribe();
+        idempotencyStore.execute("second", "2", Boolean.class, () -> registerWhen(Sinks.one())).subscribe();
+
+        StepVerifier.create(idempotencyStore.execute("third", "3", Boolean.class, this::register))
+                .expectError(IdempotencyCapacityException.class)
+                .verify();
+
+        // The retry attaches to the registration still in flight instead of running it again
+        StepVerifier.create(idempotencyStore.execute("first", "1", Boolean.class, this::register))
+                .then(() -> slowRegistration.tryEmitValue(true))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testExecute_EvictsCompletedEntriesToMakeRoom() {
+        tuningRegistry = new TuningRegistry(tuningRegistry.current().toBuilder().idempotencyMaxEntries(2).build());
+        idempotencyStore = replica();
+
+        for (String key : new String[]{"first", "second", "third"}) {
+            StepVerifier.create(idempotencyStore.execute(key, key, Boolean.class, this::register))
+                    .expectNext(true)
+                    .verifyComplete();
+        }
+
+        assertEquals(3, executions.get());
+    }
+
+    private IdempotencyStore replica() {
+        return new IdempotencyStore(tuningRegistry, sharedStateStore, environmentConfig, new ObjectMapper(),
+                new SimpleMeterRegistry());
+    }
+
+    private Mono<Boolean> registerWhen(Sinks.One<Boolean> completion) {
+        executions.incrementAndGet();
+        return completion.asMono();
+    }
+
+    private Mono<Boolean> register() {
+        return Mono.fromSupplier(() -> {
+            executions.incrementAndGet();
+            return true;
+        });
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.distribuidos.authentication.services.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DocumentIdBloomFilterTest {
+
+    @Test
+    public void testMightContain_NoFalseNegatives() {
+        DocumentIdBloomFilter filter = DocumentIdBloomFilter.create(10_000, 0.01);
+        for (long documentId = 0; documentId < 10_000; documentId++) {
+            filter.put(Long.toString(documentId));
+        }
+
+        for (long documentId = 0; documentId < 10_000; documentId++) {
+            assertTrue(filter.mightContain(Long.toString(documentId)));
+        }
+        assertTrue(filter.mightContain("0042"));
+    }
+
+    @Test
+    public void testMightContain_FalsePositiveRateWithinBound() {
+        DocumentIdBloomFilter filter = DocumentIdBloomFilter.create(10_000, 0.01);
+        for (long documentId = 0; documentId < 10_000; documentId++) {
+            filter.put(Long.toString(documentId));
+        }
+
+        int falsePositives = 0;
+        for (long documentId = 1_000_000; documentId < 1_010_000; documentId++) {
+            if (filter.mightContain(Long.toString(documentId))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testWriteTo_RoundTrip() throws Exception {
+        DocumentIdBloomFilter filter = DocumentIdBloomFilter.create(100, 0.01);
+        filter.put("123");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        DocumentIdBloomFilter restored = DocumentIdBloomFilter.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertTrue(restored.mightContain("123"));
+        assertFalse(restored.mightContain("456"));
+        assertEquals(1, restored.insertions());
+    }
+
+}
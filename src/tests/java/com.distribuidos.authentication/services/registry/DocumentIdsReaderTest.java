@@ -0,0 +1,75 @@
+package com.distribuidos.authentication.services.registry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class DocumentIdsReaderTest {
+
+    @Test
+    public void testReadDocumentIds_CollectsTheResultArray() {
+        String body = "{\"status\":200,\"meta\":{\"result\":[7,8]},\"result\":[1,22,333],\"message\":\"ok\"}";
+
+        StepVerifier.create(DocumentIdsReader.readDocumentIds(response(body, body.length())))
+                .expectNextMatches(ids -> Arrays.equals(ids, new long[]{1, 22, 333}))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadDocumentIds_StreamsLargeSnapshotsInSmallChunks() {
+        // About 1MB, split in chunks that cut numbers apart
+        long[] expected = LongStream.range(1_000_000_000L, 1_000_100_000L).toArray();
+        String body = LongStream.of(expected)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "{\"result\":[", "]}"));
+
+        StepVerifier.create(DocumentIdsReader.readDocumentIds(response(body, 7)))
+                .expectNextMatches(ids -> Arrays.equals(ids, expected))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadDocumentIds_EmptyWithoutResult() {
+        String body = "{\"status\":200,\"result\":null}";
+
+        StepVerifier.create(DocumentIdsReader.readDocumentIds(response(body, body.length())))
+                .expectNextMatches(ids -> ids.length == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testReadDocumentIds_FailsOnMalformedJson() {
+        String body = "{\"result\":[1,2";
+
+        StepVerifier.create(DocumentIdsReader.readDocumentIds(response(body, body.length())))
+                .expectError()
+                .verify();
+    }
+
+    private static ClientResponse response(String body, int chunkSize) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize))));
+        }
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(Flux.fromIterable(chunks))
+                .build();
+    }
+
+}
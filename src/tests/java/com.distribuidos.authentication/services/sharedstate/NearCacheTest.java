@@ -0,0 +1,96 @@
+package com.distribuidos.authentication.services.sharedstate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class NearCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private SharedStateStore sharedStateStore;
+    private NearCache replicaA;
+    private NearCache replicaB;
+
+    @BeforeEach
+    public void setUp() {
+        sharedStateStore = new InMemorySharedStateStore();
+        replicaA = new NearCache(sharedStateStore, "users", TTL, 100);
+        replicaB = new NearCache(sharedStateStore, "users", TTL, 100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        replicaA.dispose();
+        replicaB.dispose();
+    }
+
+    @Test
+    public void testGet_ServesHotReadsLocally() {
+        StepVerifier.create(replicaB.put("1", "v1", TTL)).verifyComplete();
+        StepVerifier.create(replicaA.get("1")).expectNext("v1").verifyComplete();
+
+        // Written behind the caches' back, without an invalidation
+        StepVerifier.create(sharedStateStore.put("users:1", "v2", TTL)).verifyComplete();
+
+        StepVerifier.create(replicaA.get("1")).expectNext("v1").verifyComplete();
+    }
+
+    @Test
+    public void testPut_InvalidatesOtherReplicas() {
+        StepVerifier.create(replicaB.put("1", "v1", TTL)).verifyComplete();
+        StepVerifier.create(replicaA.get("1")).expectNext("v1").verifyComplete();
+
+        StepVerifier.create(replicaB.put("1", "v2", TTL)).verifyComplete();
+        StepVerifier.create(replicaA.get("1")).expectNext("v2").verifyComplete();
+
+        StepVerifier.create(replicaB.evict("1")).verifyComplete();
+        StepVerifier.create(replicaA.get("1")).verifyComplete();
+    }
+
+    @Test
+    public void testGetAll_CombinesLocalAndSharedEntries() {
+        StepVerifier.create(replicaB.put("1", "v1", TTL)).verifyComplete();
+        StepVerifier.create(replicaB.put("2", "v2", TTL)).verifyComplete();
+        StepVerifier.create(replicaA.get("1")).expectNext("v1").verifyComplete();
+
+        StepVerifier.create(replicaA.getAll(List.of("1", "2", "3")))
+                .expectNext(Map.of("1", "v1", "2", "v2"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGet_DoesNotCacheAValueReadAcrossAnInvalidation() {
+        Sinks.One<String> staleRead = Sinks.one();
+        AtomicBoolean firstRead = new AtomicBoolean(true);
+        SharedStateStore racingStore = new InMemorySharedStateStore() {
+            @Override
+            public Mono<String> get(String key) {
+                return firstRead.getAndSet(false) ? staleRead.asMono() : super.get(key);
+            }
+        };
+        NearCache reader = new NearCache(racingStore, "users", TTL, 100);
+        NearCache writer = new NearCache(racingStore, "users", TTL, 100);
+
+        // The write and its invalidation land while the read of the previous value is in flight
+        StepVerifier.create(reader.get("1"))
+                .then(() -> writer.put("1", "v2", TTL).subscribe())
+                .then(() -> staleRead.tryEmitValue("v1"))
+                .expectNext("v1")
+                .verifyComplete();
+
+        StepVerifier.create(reader.get("1")).expectNext("v2").verifyComplete();
+
+        reader.dispose();
+        writer.dispose();
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.distribuidos.authentication.services.sharedstate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the store against a real Redis, e.g. {@code SHARED_STATE_TEST_REDIS_URL=redis://localhost:6379}.
+ * Skipped when the variable is not set, {@link RedisSharedStateStoreTest} covers the command mapping
+ * without a server.
+ */
+@EnabledIfEnvironmentVariable(named = RedisSharedStateStoreRedisTest.REDIS_URL, matches = ".+")
+public class RedisSharedStateStoreRedisTest {
+
+    static final String REDIS_URL = "SHARED_STATE_TEST_REDIS_URL";
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private LettuceConnectionFactory connectionFactory;
+    private ReactiveStringRedisTemplate redisTemplate;
+    private String keyPrefix;
+    private RedisSharedStateStore sharedStateStore;
+
+    @BeforeEach
+    public void setUp() {
+        URI uri = URI.create(System.getenv(REDIS_URL));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(uri.getHost(),
+                uri.getPort() == -1 ? 6379 : uri.getPort()));
+        connectionFactory.afterPropertiesSet();
+
+        // A prefix per test keeps runs apart on a shared server
+        redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+        keyPrefix = "auth-test:" + UUID.randomUUID() + ":";
+        sharedStateStore = new RedisSharedStateStore(redisTemplate, keyPrefix);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    public void testGetAll_ReadsBackEntriesWrittenWithPutAll() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("a", "1");
+        entries.put("b", "2");
+
+        StepVerifier.create(sharedStateStore.putAll(entries, TTL)).verifyComplete();
+
+        StepVerifier.create(sharedStateStore.getAll(List.of("b", "missing", "a")))
+                .assertNext(values -> {
+                    assertEquals(List.of("b", "a"), new ArrayList<>(values.keySet()));
+                    assertEquals("2", values.get("b"));
+                    assertEquals("1", values.get("a"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testPut_ExpiresAfterTheTtl() throws InterruptedException {
+        StepVerifier.create(sharedStateStore.put("a", "1", Duration.ofSeconds(1))).verifyComplete();
+        StepVerifier.create(sharedStateStore.get("a")).expectNext("1").verifyComplete();
+
+        Thread.sleep(1500);
+
+        StepVerifier.create(sharedStateStore.get("a")).verifyComplete();
+    }
+
+    @Test
+    public void testDelete_RemovesTheEntry() {
+        StepVerifier.create(sharedStateStore.put("a", "1", TTL)).verifyComplete();
+        StepVerifier.create(sharedStateStore.delete("a")).verifyComplete();
+
+        StepVerifier.create(sharedStateStore.get("a")).verifyComplete();
+    }
+
+    @Test
+    public void testSubscribe_ReceivesMessagesPublishedOnTheChannel() {
+        StepVerifier.create(sharedStateStore.subscribe("invalidate:users").take(2))
+                .then(() -> publishOnceSubscribed("invalidate:users", "1"))
+                .expectNext("1")
+                .then(() -> sharedStateStore.publish("invalidate:users", "2").block())
+                .expectNext("2")
+                .verifyComplete();
+    }
+
+    // Subscribing is asynchronous and a message published before then reaches nobody, so publish until one
+    // receiver got it
+    private void publishOnceSubscribed(String channel, String message) {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            Long receivers = redisTemplate.convertAndSend(keyPrefix + channel, message).block();
+            if (receivers != null && receivers > 0) {
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
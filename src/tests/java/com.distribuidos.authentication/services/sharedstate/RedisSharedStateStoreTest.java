@@ -0,0 +1,98 @@
+package com.distribuidos.authentication.services.sharedstate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RedisSharedStateStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private ReactiveValueOperations<String, String> valueOperations;
+    private RedisSharedStateStore sharedStateStore;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        valueOperations = mock(ReactiveValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        sharedStateStore = new RedisSharedStateStore(redisTemplate, "auth:");
+    }
+
+    @Test
+    public void testGetAll_MapsMgetRepliesBackToKeysInOrder() {
+        when(valueOperations.multiGet(List.of("auth:c", "auth:a", "auth:b")))
+                .thenReturn(Mono.just(Arrays.asList("3", null, "2")));
+
+        StepVerifier.create(sharedStateStore.getAll(List.of("c", "a", "b")))
+                .assertNext(values -> assertEquals(List.of("c", "b"), new ArrayList<>(values.keySet())))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGetAll_SkipsTheRoundTripForNoKeys() {
+        StepVerifier.create(sharedStateStore.getAll(List.of()))
+                .expectNext(Map.of())
+                .verifyComplete();
+
+        verify(valueOperations, never()).multiGet(any());
+    }
+
+    @Test
+    public void testPutAll_WritesEveryPrefixedEntryWithTheTtl() {
+        when(valueOperations.set(any(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("a", "1");
+        entries.put("b", "2");
+
+        StepVerifier.create(sharedStateStore.putAll(entries, TTL)).verifyComplete();
+
+        verify(valueOperations).set("auth:a", "1", TTL);
+        verify(valueOperations).set("auth:b", "2", TTL);
+    }
+
+    @Test
+    public void testPublish_SendsOnThePrefixedChannel() {
+        when(redisTemplate.convertAndSend("auth:invalidate:users", "1")).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(sharedStateStore.publish("invalidate:users", "1")).verifyComplete();
+
+        verify(redisTemplate).convertAndSend("auth:invalidate:users", "1");
+    }
+
+    @Test
+    public void testSubscribe_EmitsMessagePayloads() {
+        doReturn(Flux.just(
+                new ReactiveSubscription.ChannelMessage<>("auth:invalidate:users", "1"),
+                new ReactiveSubscription.ChannelMessage<>("auth:invalidate:users", "2")))
+                .when(redisTemplate).listenToChannel("auth:invalidate:users");
+
+        StepVerifier.create(sharedStateStore.subscribe("invalidate:users"))
+                .expectNext("1", "2")
+                .verifyComplete();
+    }
+
+}
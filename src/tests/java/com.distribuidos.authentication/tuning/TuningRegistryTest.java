@@ -0,0 +1,117 @@
+package com.distribuidos.authentication.tuning;
+
+import com.distribuidos.authentication.exceptions.InvalidTuningException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TuningRegistryTest {
+
+    private static final Tuning.Upstream UPSTREAM = Tuning.Upstream.builder()
+            .responseTimeoutInMs(5000)
+            .pendingAcquireTimeoutInMs(5000)
+            .maxConnections(50)
+            .maxConcurrentStreams(100)
+            .minConnections(2)
+            .build();
+
+    private final List<TuningRegistry.Change> changes = new ArrayList<>();
+
+    private TuningRegistry tuningRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        tuningRegistry = new TuningRegistry(Tuning.builder()
+                .serviceRetryMaxAttempts(2)
+                .users(UPSTREAM)
+                .centralizer(UPSTREAM)
+                .idempotencyTtlInSeconds(600)
+                .idempotencyMaxEntries(10000)
+                .userLookupBatchWindowInMs(5)
+                .userLookupBatchMaxSize(50)
+                .registeredDocumentsMaxStalenessInSeconds(900)
+                .build());
+        tuningRegistry.changes().subscribe(changes::add);
+    }
+
+    @Test
+    public void testUpdate_AppliesSettingsTogether() {
+        tuningRegistry.update(Map.of(
+                "service-retry.max-attempts", "0",
+                "users.max-connections", "80",
+                "users.min-connections", "60"), "test");
+
+        Tuning current = tuningRegistry.current();
+        assertEquals(0, current.getServiceRetryMaxAttempts());
+        assertEquals(80, current.getUsers().getMaxConnections());
+        assertEquals(60, current.getUsers().getMinConnections());
+        assertEquals(UPSTREAM, current.getCentralizer());
+
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).getCurrent().getUsers().hasDifferentPoolThan(changes.get(0).getPrevious().getUsers()));
+    }
+
+    @Test
+    public void testUpdate_RejectedSettingsLeaveTuningUntouched() {
+        Tuning before = tuningRegistry.current();
+
+        assertThrows(InvalidTuningException.class, () -> tuningRegistry.update(Map.of(
+                "users.max-connections", "10",
+                "users.min-connections", "20"), "test"));
+        assertThrows(InvalidTuningException.class, () -> tuningRegistry.update(Map.of(
+                "users.response-timeout-in-ms", "soon"), "test"));
+        assertThrows(InvalidTuningException.class, () -> tuningRegistry.update(Map.of(
+                "users.unknown", "1"), "test"));
+
+        assertSame(before, tuningRegistry.current());
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testAsSettings_ListsEveryTunableKey() {
+        Map<String, Object> settings = tuningRegistry.current().asSettings();
+
+        assertEquals(16, settings.size());
+        assertEquals(50, settings.get("centralizer.max-connections"));
+    }
+
+    @Test
+    public void testUpdate_PendingAcquireTimeoutRebuildsThePool() {
+        tuningRegistry.update(Map.of("users.response-timeout-in-ms", "2000"), "test");
+        tuningRegistry.update(Map.of("users.pending-acquire-timeout-in-ms", "2000"), "test");
+
+        assertEquals(2, changes.size());
+        TuningRegistry.Change responseTimeout = changes.get(0);
+        TuningRegistry.Change pendingAcquireTimeout = changes.get(1);
+        assertFalse(responseTimeout.getCurrent().getUsers()
+                .hasDifferentPoolThan(responseTimeout.getPrevious().getUsers()));
+        assertTrue(pendingAcquireTimeout.getCurrent().getUsers()
+                .hasDifferentPoolThan(pendingAcquireTimeout.getPrevious().getUsers()));
+    }
+
+    @Test
+    public void testUpdate_AppliesLookupBatchAndFilterSettings() {
+        tuningRegistry.update(Map.of(
+                "user-lookup-batch.max-size", "20",
+                "user-lookup-batch.window-in-ms", "10",
+                "registered-documents-filter.max-staleness-in-seconds", "60"), "test");
+
+        Tuning current = tuningRegistry.current();
+        assertEquals(20, current.getUserLookupBatchMaxSize());
+        assertEquals(10, current.getUserLookupBatchWindowInMs());
+        assertEquals(60, current.getRegisteredDocumentsMaxStalenessInSeconds());
+
+        assertThrows(InvalidTuningException.class, () -> tuningRegistry.update(Map.of(
+                "user-lookup-batch.max-size", "0"), "test"));
+    }
+
+}